@@ -0,0 +1,69 @@
+package tradingengine.book;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Add / best-peek / fill-and-remove and add / cancel cycles on one book side, TreeMap levels
+ * vs the price ladder.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhArgs=OrderBookSideBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookSideBenchmark {
+
+    private static final Instant TIME = Instant.parse("2026-01-01T00:00:00Z");
+    private static final int LEVELS = 200;
+
+    @Param({"treemap", "ladder"})
+    public String levels;
+
+    private OrderBookSide side;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        side = "ladder".equals(levels)
+                ? OrderBookSide.withPriceLadder(Comparator.naturalOrder(), 4096)
+                : new OrderBookSide(Comparator.naturalOrder());
+        // Resting depth so the best level has neighbours to fall back to.
+        for (int i = 0; i < LEVELS; i++) {
+            side.addRestingOrder(new Order(OrderSide.SELL, 10_000 + i, 1, TIME));
+        }
+    }
+
+    @Benchmark
+    public Order addPeekFill() {
+        // Re-add at a rotating price, then consume the best order.
+        side.addRestingOrder(new Order(OrderSide.SELL, 10_000 + (next++ % LEVELS), 1, TIME));
+        side.fillBestOrder(side.peekBestOrderOrNull().getRemainingQty());
+        return side.removeBestOrderIfInactive();
+    }
+
+    @Benchmark
+    public boolean addCancel() {
+        // Rest a lone order behind the book and cancel it through its node, emptying its level.
+        OrderNode node = side.addRestingOrder(new Order(OrderSide.SELL, 10_000 + LEVELS + (next++ % LEVELS), 1, TIME));
+        return side.cancel(node);
+    }
+}
@@ -0,0 +1,85 @@
+package tradingengine.matchingengine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tradingengine.book.OrderBook;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+import tradingengine.domain.Trade;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state matching allocation: a primitive {@link FillSink} vs collecting {@link Trade}s.
+ *
+ * <p>Each operation rests one maker and crosses it with one taker. Compare
+ * {@code gc.alloc.rate.norm}: the sink path should show only what resting the maker costs
+ * (the two orders, a queue node, a boxed level key), while the trade path adds a list and a
+ * trade per fill.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhArgs=BookMatcherBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMatcherBenchmark {
+
+    private static final Instant TIME = Instant.parse("2026-01-01T00:00:00Z");
+    private static final int LEVELS = 50;
+
+    private BookMatcher matcher;
+    private long next;
+    private long notional;
+
+    private final FillSink primitiveSink = new FillSink() {
+        @Override
+        public void onFill(Order incoming, Order resting, long price, long quantity) {
+            notional += price * quantity;
+        }
+    };
+
+    private List<Trade> trades;
+    private final FillSink tradeSink = (incoming, resting, price, quantity) ->
+            trades.add(new Trade(incoming.getId(), resting.getId(), price, quantity, incoming.getTimestamp()));
+
+    @Setup
+    public void setUp() {
+        matcher = new BookMatcher(new OrderBook());
+        // Resting depth so emptied levels have neighbours.
+        for (int i = 0; i < LEVELS; i++) {
+            matcher.submit(Order.withEngineAssignedId(OrderSide.SELL, 10_000 + i, 1, TIME), TIME, primitiveSink);
+        }
+    }
+
+    @Benchmark
+    public long primitiveSink() {
+        restMaker();
+        return matcher.submit(Order.withEngineAssignedId(OrderSide.BUY, 20_000, 1, TIME), TIME, primitiveSink);
+    }
+
+    @Benchmark
+    public List<Trade> tradeList() {
+        restMaker();
+        trades = new ArrayList<>();
+        matcher.submit(Order.withEngineAssignedId(OrderSide.BUY, 20_000, 1, TIME), TIME, tradeSink);
+        return trades;
+    }
+
+    private void restMaker() {
+        matcher.submit(Order.withEngineAssignedId(OrderSide.SELL, 10_000 + (next++ % LEVELS), 1, TIME), TIME, primitiveSink);
+    }
+}
@@ -0,0 +1,85 @@
+package tradingengine.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tradingengine.domain.Trade;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous String-based trades.csv format path with {@link TradeCsvCodec}.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhArgs=TradeCsvCodecBenchmark}; the task enables the
+ * GC profiler, so {@code gc.alloc.rate.norm} reports bytes allocated per trade.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeCsvCodecBenchmark {
+
+    private Trade trade;
+    private String line;
+    private byte[] lineBytes;
+    private TradeCsvCodec codec;
+    private TradeCsvCodec.Fields fields;
+
+    @Setup
+    public void setUp() {
+        trade = new Trade("b-1029384", "s-5647382", 10_125L, 250L, Instant.parse("2026-03-14T09:26:53.589793Z"));
+        line = legacySerialize(trade);
+        lineBytes = line.getBytes(StandardCharsets.UTF_8);
+        codec = new TradeCsvCodec();
+        fields = new TradeCsvCodec.Fields();
+    }
+
+    @Benchmark
+    public byte[] legacyEncode() {
+        return (legacySerialize(trade) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int codecEncode() {
+        return codec.encode(trade);
+    }
+
+    @Benchmark
+    public Trade legacyDecode() {
+        String[] parts = line.split(",");
+        return new Trade(parts[0], parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                Instant.parse(parts[4]));
+    }
+
+    @Benchmark
+    public Trade codecDecode() {
+        return TradeCsvCodec.decode(lineBytes, 0, lineBytes.length);
+    }
+
+    @Benchmark
+    public long codecDecodeFields() {
+        TradeCsvCodec.decodeFields(lineBytes, 0, lineBytes.length, fields);
+        return fields.price() ^ fields.epochMillis();
+    }
+
+    private static String legacySerialize(Trade trade) {
+        return String.join(",",
+                trade.buyOrderId(),
+                trade.sellOrderId(),
+                Long.toString(trade.price()),
+                Long.toString(trade.quantity()),
+                trade.timestamp().toString()
+        );
+    }
+}
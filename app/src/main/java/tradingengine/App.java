@@ -3,14 +3,19 @@ package tradingengine;
 import org.eclipse.jetty.server.Server;
 import tradingengine.analytics.AnalyticsJob;
 import tradingengine.analytics.AnalyticsStore;
+import tradingengine.analytics.ParallelTradeScanner;
+import tradingengine.analytics.TradeAggregate;
+import tradingengine.book.DepthSnapshot;
 import tradingengine.book.OrderBook;
 import tradingengine.book.OrderBookSide;
-import tradingengine.domain.Order;
-import tradingengine.domain.OrderSide;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.LevelUpdateEvent;
+import tradingengine.events.MassCancelEvent;
 import tradingengine.events.OrderBookEvent;
 import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
+import tradingengine.matchingengine.EngineSequencer;
 import tradingengine.matchingengine.MatchingEngine;
 import tradingengine.ops.EngineRuntime;
 import tradingengine.persistence.CommandLog;
@@ -24,6 +29,7 @@ import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Entry point that wires together:
@@ -41,8 +47,13 @@ public class App {
         MarketDataBroadcaster broadcaster = new MarketDataBroadcaster();
         dispatcher.register(TradeExecutedEvent.class, broadcaster::onTradeExecuted);
         dispatcher.register(OrderBookEvent.class, broadcaster::onOrderBookEvent);
+        dispatcher.register(MassCancelEvent.class, broadcaster::onMassCancel);
+        dispatcher.register(TradeSummaryEvent.class, broadcaster::onTradeSummary);
+        dispatcher.register(LevelUpdateEvent.class, broadcaster::onLevelUpdate);
 
         String dataDir = System.getenv().getOrDefault("DATA_DIR", "data");
+        // Prices per side held in the array-indexed ladder; 0 keeps the TreeMap-backed book.
+        int ladderTicks = Integer.parseInt(System.getenv().getOrDefault("BOOK_LADDER_TICKS", "0"));
         Path commandsPath = Path.of(dataDir, "commands.log");
         Path tradesPath = Path.of(dataDir, "trades.csv");
         Path analyticsPath = Path.of(dataDir, "analytics.csv");
@@ -53,7 +64,7 @@ public class App {
 
         // MatchingEngine holds the core order book + matching rules.
         MatchingEngine engine = new MatchingEngine(
-                new OrderBook(),
+                new OrderBook(ladderTicks),
                 Clock.systemUTC(),
                 dispatcher,
                 tradeStore,
@@ -68,43 +79,55 @@ public class App {
         engine.setReplayMode(true);
         try {
             for (CommandLog.Record record : commandLog.readAll()) {
-                if (record.type == CommandLog.Type.ORDER) {
-                    Order replayOrder = new Order(
-                            record.orderId,
-                            OrderSide.valueOf(record.side),
-                            record.price,
-                            record.quantity,
-                            record.timestamp
-                    );
-                    engine.submit(replayOrder);
-                } else if (record.type == CommandLog.Type.CANCEL) {
-                    engine.cancel(record.cancelOrderId);
-                }
+                engine.replay(record);
             }
         } finally {
             engine.setReplayMode(false);
         }
+        // A deep sweep becomes a few per-level messages instead of a frame per fill.
+        engine.setAggregatedEvents(true);
+
+        // From here on only the matching thread touches the engine; servlets enqueue commands.
+        EngineSequencer sequencer = new EngineSequencer(engine);
 
         // Shared runtime state read by ops endpoints and dev APIs.
-        EngineRuntime runtime = new EngineRuntime(engine, broadcaster);
+        EngineRuntime runtime = new EngineRuntime(engine, sequencer, broadcaster);
 
         AnalyticsJob analyticsJob = new AnalyticsJob(
                 analyticsStore,
                 new AnalyticsJob.SnapshotProvider() {
+                    // Versioned snapshot shared with /api/book; only rebuilt if the book changed.
+                    private DepthSnapshot currentDepth() {
+                        try {
+                            return runtime.depthSnapshot();
+                        } catch (TimeoutException e) {
+                            throw new IllegalStateException("matching thread did not answer in time", e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("interrupted while reading the book", e);
+                        }
+                    }
+
                     @Override
                     public List<OrderBookSide.LevelSnapshot> currentBids() {
-                        return runtime.engine().getBook().buySide().snapshotLevels();
+                        return currentDepth().bids();
                     }
 
                     @Override
                     public List<OrderBookSide.LevelSnapshot> currentAsks() {
-                        return runtime.engine().getBook().sellSide().snapshotLevels();
+                        return currentDepth().asks();
                     }
 
                     @Override
                     public List<Trade> currentTrades() {
                         return runtime.engine().tradeHistory();
                     }
+
+                    @Override
+                    public TradeAggregate currentTradeAggregate() {
+                        // Aggregate straight from trades.csv on all cores instead of loading every Trade.
+                        return ParallelTradeScanner.scan(tradesPath, null);
+                    }
                 },
                 Clock.systemUTC()
         );
@@ -127,19 +150,23 @@ public class App {
             return t;
         });
         scheduler.scheduleAtFixedRate(runAnalyticsSafely, 30, 30, TimeUnit.SECONDS);
+        // Commands expire due GTT orders before they run; this clears them from an idle book too.
+        // A full queue just skips a sweep: the queued commands expire orders themselves.
+        scheduler.scheduleAtFixedRate(() -> sequencer.submit(MatchingEngine::expireOrders), 100, 100, TimeUnit.MILLISECONDS);
 
         Server server = WebSocketServer.start(runtime, analyticsStore, 8080);
         runtime.setReady(true);
 
         System.out.println("UI: http://localhost:8080/ui");
         System.out.println("Ops: /health /ready /metrics");
-        System.out.println("APIs: POST /api/order, POST /api/cancel, GET /api/book, GET /api/trades, GET /api/analytics");
+        System.out.println("APIs: POST /api/order, POST /api/cancel, POST /api/amend, POST /api/quote, POST /api/cancel/mass, POST /api/batch, GET /api/book, GET /api/book/top, GET /api/trades, GET /api/trades/export, GET /api/analytics");
         System.out.println("WebSocket: ws://localhost:8080/ws");
 
         try {
             server.join();
         } finally {
             runtime.setReady(false);
+            sequencer.close();
             scheduler.shutdown();
             try {
                 if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -32,24 +32,33 @@ public final class AnalyticsCalculator {
             List<OrderBookSide.LevelSnapshot> asks,
             List<Trade> trades,
             Instant timestamp
+    ) {
+        Objects.requireNonNull(trades, "trades must not be null");
+        return compute(bids, asks, TradeAggregate.of(trades), timestamp);
+    }
+
+    /**
+     * Builds one analytics snapshot from current order book + pre-aggregated trades.
+     *
+     * @param bids current bid levels in priority order (best first)
+     * @param asks current ask levels in priority order (best first)
+     * @param trades aggregate over the full trade history
+     * @param timestamp snapshot timestamp supplied by caller
+     * @return computed analytics summary
+     */
+    public static AnalyticsSnapshot compute(
+            List<OrderBookSide.LevelSnapshot> bids,
+            List<OrderBookSide.LevelSnapshot> asks,
+            TradeAggregate trades,
+            Instant timestamp
     ) {
         Objects.requireNonNull(bids, "bids must not be null");
         Objects.requireNonNull(asks, "asks must not be null");
         Objects.requireNonNull(trades, "trades must not be null");
         Objects.requireNonNull(timestamp, "timestamp must not be null");
 
-        // Basic trade aggregates.
-        long totalTrades = trades.size();
-        long totalVolume = 0L;
-        double notional = 0.0;
-        for (Trade trade : trades) {
-            long qty = trade.quantity();
-            totalVolume += qty;
-            notional += ((double) trade.price()) * qty;
-        }
-
         // Weighted average price = sum(price * qty) / sum(qty).
-        double avgTradePrice = (totalVolume == 0L) ? 0.0 : (notional / (double) totalVolume);
+        double avgTradePrice = trades.averagePrice();
 
         // Best prices come from the first level because snapshots are already sorted.
         Long bestBid = bids.isEmpty() ? null : bids.get(0).price();
@@ -66,8 +75,8 @@ public final class AnalyticsCalculator {
 
         return new AnalyticsSnapshot(
                 timestamp,
-                totalTrades,
-                totalVolume,
+                trades.totalTrades(),
+                trades.totalVolume(),
                 avgTradePrice,
                 bestBid,
                 bestAsk,
@@ -41,7 +41,7 @@ public final class AnalyticsJob {
         // Extract current engine state.
         List<OrderBookSide.LevelSnapshot> bids = snapshotProvider.currentBids();
         List<OrderBookSide.LevelSnapshot> asks = snapshotProvider.currentAsks();
-        List<Trade> trades = snapshotProvider.currentTrades();
+        TradeAggregate trades = snapshotProvider.currentTradeAggregate();
 
         // Transform + load.
         AnalyticsSnapshot snapshot = AnalyticsCalculator.compute(
@@ -65,5 +65,13 @@ public final class AnalyticsJob {
 
         /** @return current trade history snapshot */
         List<Trade> currentTrades();
+
+        /**
+         * @return aggregate over the current trade history; providers backed by
+         *         trades.csv can override this to scan the file in parallel
+         */
+        default TradeAggregate currentTradeAggregate() {
+            return TradeAggregate.of(currentTrades());
+        }
     }
 }
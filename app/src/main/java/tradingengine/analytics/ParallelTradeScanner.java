@@ -0,0 +1,136 @@
+package tradingengine.analytics;
+
+import tradingengine.persistence.TradeCsvCodec;
+import tradingengine.persistence.TradeLineReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk reader for {@code trades.csv} that aggregates on all cores.
+ *
+ * <p>The file is split into byte ranges. Each range owns the lines that start inside it,
+ * so ranges can be parsed independently without coordinating on line boundaries.
+ * Partial {@link TradeAggregate}s are merged in file order, which keeps bar open/close
+ * identical to a sequential scan. Lines are decoded with {@link TradeCsvCodec#decodeFields},
+ * so the per-line work allocates nothing.
+ */
+public final class ParallelTradeScanner {
+
+    // Below this size a range is parsed directly instead of being split further.
+    private static final long MIN_RANGE_BYTES = 1L << 20;
+
+    /** Utility class; no instances needed. */
+    private ParallelTradeScanner() {
+    }
+
+    /**
+     * Scans a trade file on the common fork-join pool.
+     *
+     * @param file trades.csv path (a missing file yields an empty aggregate)
+     * @param barInterval bar width, or {@code null} to skip bars
+     * @return aggregate over every trade in the file
+     */
+    public static TradeAggregate scan(Path file, Duration barInterval) {
+        return scan(file, barInterval, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans a trade file on the given pool.
+     *
+     * @param file trades.csv path (a missing file yields an empty aggregate)
+     * @param barInterval bar width, or {@code null} to skip bars
+     * @param pool pool whose parallelism drives how finely the file is split
+     * @return aggregate over every trade in the file
+     */
+    public static TradeAggregate scan(Path file, Duration barInterval, ForkJoinPool pool) {
+        return scan(file, barInterval, pool, MIN_RANGE_BYTES);
+    }
+
+    /**
+     * @param minRangeBytes smallest range worth a separate task (tests use tiny ranges)
+     */
+    static TradeAggregate scan(Path file, Duration barInterval, ForkJoinPool pool, long minRangeBytes) {
+        Objects.requireNonNull(file, "file must not be null");
+        Objects.requireNonNull(pool, "pool must not be null");
+        if (!Files.exists(file)) {
+            return new TradeAggregate(barInterval);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // A few ranges per worker keeps cores busy when line density is uneven.
+            long rangeBytes = Math.max(minRangeBytes, size / (pool.getParallelism() * 4L) + 1);
+            return pool.invoke(new ScanTask(channel, 0L, size, rangeBytes, barInterval));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan trades file: " + file, e);
+        }
+    }
+
+    // Never serialized: ForkJoin tasks only inherit Serializable from ForkJoinTask.
+    @SuppressWarnings("serial")
+    private static final class ScanTask extends RecursiveTask<TradeAggregate> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long rangeBytes;
+        private final Duration barInterval;
+
+        ScanTask(FileChannel channel, long start, long end, long rangeBytes, Duration barInterval) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.rangeBytes = rangeBytes;
+            this.barInterval = barInterval;
+        }
+
+        @Override
+        protected TradeAggregate compute() {
+            if (end - start <= rangeBytes) {
+                try {
+                    return scanRange();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            long mid = start + (end - start) / 2;
+            ScanTask left = new ScanTask(channel, start, mid, rangeBytes, barInterval);
+            ScanTask right = new ScanTask(channel, mid, end, rangeBytes, barInterval);
+            left.fork();
+            TradeAggregate rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        /**
+         * Parses every line that starts in [start, end); the last one may run past end.
+         */
+        private TradeAggregate scanRange() throws IOException {
+            TradeAggregate aggregate = new TradeAggregate(barInterval);
+            TradeLineReader reader = new TradeLineReader(channel, start == 0 ? 0 : start - 1);
+
+            // Skip the tail of a line that started in the previous range.
+            if (start > 0) {
+                reader.nextLine();
+            }
+
+            TradeCsvCodec.Fields fields = new TradeCsvCodec.Fields();
+            while (reader.position() < end && reader.nextLine()) {
+                if (reader.isBlankLine()) {
+                    continue;
+                }
+                TradeCsvCodec.decodeFields(reader.line(), 0, reader.lineLength(), fields);
+                aggregate.add(fields.price(), fields.quantity(), fields.epochMillis());
+            }
+            return aggregate;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package tradingengine.analytics;
+
+import tradingengine.domain.Trade;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Mergeable trade aggregates: counts, volume, notional and optional per-interval bars.
+ *
+ * <p>Partial aggregates built over consecutive slices of the trade history can be merged
+ * left-to-right, which is what lets {@link ParallelTradeScanner} split the work.
+ */
+public final class TradeAggregate {
+
+    /**
+     * OHLCV bar for one time interval.
+     *
+     * @param startEpochMillis interval start (UTC epoch millis)
+     * @param open      first trade price in the interval
+     * @param high      highest trade price in the interval
+     * @param low       lowest trade price in the interval
+     * @param close     last trade price in the interval
+     * @param volume    traded quantity in the interval
+     * @param trades    number of trades in the interval
+     */
+    public record Bar(long startEpochMillis, long open, long high, long low, long close, long volume, long trades) {
+
+        Bar merge(Bar later) {
+            return new Bar(
+                    startEpochMillis,
+                    open,
+                    Math.max(high, later.high),
+                    Math.min(low, later.low),
+                    later.close,
+                    volume + later.volume,
+                    trades + later.trades
+            );
+        }
+    }
+
+    private final long barIntervalMillis; // 0 = bars disabled
+    private long totalTrades;
+    private long totalVolume;
+    private double notional;
+    private final TreeMap<Long, Bar> bars = new TreeMap<>();
+
+    /**
+     * @param barInterval bar width, or {@code null} to skip bar aggregation
+     */
+    public TradeAggregate(Duration barInterval) {
+        if (barInterval != null && (barInterval.isNegative() || barInterval.isZero())) {
+            throw new IllegalArgumentException("barInterval must be positive");
+        }
+        this.barIntervalMillis = barInterval == null ? 0L : barInterval.toMillis();
+    }
+
+    /**
+     * Aggregates an in-memory trade list without bars.
+     */
+    public static TradeAggregate of(List<Trade> trades) {
+        Objects.requireNonNull(trades, "trades must not be null");
+        TradeAggregate aggregate = new TradeAggregate(null);
+        for (Trade trade : trades) {
+            aggregate.add(trade);
+        }
+        return aggregate;
+    }
+
+    /**
+     * Adds one trade. Trades must be added in history order so bar open/close are correct.
+     */
+    public void add(Trade trade) {
+        add(trade.price(), trade.quantity(), trade.timestamp().toEpochMilli());
+    }
+
+    void add(long price, long qty, long epochMillis) {
+        totalTrades++;
+        totalVolume += qty;
+        notional += ((double) price) * qty;
+
+        if (barIntervalMillis > 0) {
+            long start = Math.floorDiv(epochMillis, barIntervalMillis) * barIntervalMillis;
+            Bar single = new Bar(start, price, price, price, price, qty, 1);
+            bars.merge(start, single, Bar::merge);
+        }
+    }
+
+    /**
+     * Folds an aggregate covering the trades that come after this one into this one.
+     *
+     * @param later aggregate of the following slice of history
+     * @return this aggregate
+     */
+    public TradeAggregate merge(TradeAggregate later) {
+        Objects.requireNonNull(later, "later must not be null");
+        if (later.barIntervalMillis != barIntervalMillis) {
+            throw new IllegalArgumentException("cannot merge aggregates with different bar intervals");
+        }
+        totalTrades += later.totalTrades;
+        totalVolume += later.totalVolume;
+        notional += later.notional;
+        for (Map.Entry<Long, Bar> entry : later.bars.entrySet()) {
+            bars.merge(entry.getKey(), entry.getValue(), Bar::merge);
+        }
+        return this;
+    }
+
+    public long totalTrades() {
+        return totalTrades;
+    }
+
+    public long totalVolume() {
+        return totalVolume;
+    }
+
+    /** @return sum of price * quantity over all trades */
+    public double notional() {
+        return notional;
+    }
+
+    /** @return volume-weighted average price, 0.0 when there are no trades */
+    public double averagePrice() {
+        return totalVolume == 0L ? 0.0 : notional / (double) totalVolume;
+    }
+
+    /** @return bars in time order (empty when bars are disabled) */
+    public List<Bar> bars() {
+        return List.copyOf(bars.values());
+    }
+}
@@ -0,0 +1,50 @@
+package tradingengine.book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable L2 view of both sides of the book at one version.
+ *
+ * <p>Built on the thread that owns the book and safe to hand to any number of readers.
+ * Successive snapshots share the level objects of levels that did not change.
+ *
+ * @param version the book version this view reflects (see {@link OrderBook#version()})
+ * @param bids    bid levels, best first, with their orders
+ * @param asks    ask levels, best first, with their orders
+ */
+public record DepthSnapshot(
+        long version,
+        List<OrderBookSide.LevelSnapshot> bids,
+        List<OrderBookSide.LevelSnapshot> asks
+) {
+    /** Snapshot of an empty book before anything is published. */
+    public static final DepthSnapshot EMPTY = new DepthSnapshot(0, List.of(), List.of());
+
+    /**
+     * Returns the best {@code maxLevels} levels per side, in O(maxLevels).
+     *
+     * @param maxLevels maximum levels per side
+     * @param includeOrders whether to keep each level's order list
+     * @return view at the same version
+     */
+    public DepthSnapshot limit(int maxLevels, boolean includeOrders) {
+        if (maxLevels <= 0) {
+            throw new IllegalArgumentException("maxLevels must be positive");
+        }
+        return new DepthSnapshot(version, limit(bids, maxLevels, includeOrders), limit(asks, maxLevels, includeOrders));
+    }
+
+    private static List<OrderBookSide.LevelSnapshot> limit(
+            List<OrderBookSide.LevelSnapshot> levels, int maxLevels, boolean includeOrders) {
+        List<OrderBookSide.LevelSnapshot> top = levels.subList(0, Math.min(maxLevels, levels.size()));
+        if (includeOrders) {
+            return top;
+        }
+        List<OrderBookSide.LevelSnapshot> stripped = new ArrayList<>(top.size());
+        for (OrderBookSide.LevelSnapshot level : top) {
+            stripped.add(new OrderBookSide.LevelSnapshot(level.price(), level.qty(), level.count(), List.of()));
+        }
+        return List.copyOf(stripped);
+    }
+}
@@ -3,11 +3,14 @@ package tradingengine.book;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 
 /**
  * Represents the complete order book
@@ -22,15 +25,60 @@ public class OrderBook {
 
     private final OrderBookSide buySide;
     private final OrderBookSide sellSide;
-    private final Map<String, OrderLocator> orderIndex; // For delete-by-id
+    // Delete-by-id goes straight to the queue node. Orders are keyed by their dense engine id;
+    // only ids that are not the decimal form of it (legacy UUIDs, test ids) need a string entry.
+    private final LongObjectMap<OrderNode> nodesByEngineId;
+    private final Map<String, OrderNode> nodesByForeignId;
+    // Resting orders per owning client, oldest first, for client-scoped mass cancel and quotes.
+    private final Map<String, Set<Order>> ordersByOwner;
+    private long lastEngineId;
 
     /**
      * Creates an empty order book.
      */
     public OrderBook() {
-        this.buySide = new OrderBookSide(Comparator.reverseOrder());
-        this.sellSide = new OrderBookSide(Comparator.naturalOrder());
-        this.orderIndex = new HashMap<>();
+        this(0);
+    }
+
+    /**
+     * Creates an empty order book whose sides keep price levels in tick-indexed arrays.
+     *
+     * @param ladderTicks prices covered by each side's array window; 0 keeps the sorted-map levels
+     */
+    public OrderBook(int ladderTicks) {
+        if (ladderTicks < 0) {
+            throw new IllegalArgumentException("ladderTicks must not be negative");
+        }
+        if (ladderTicks == 0) {
+            this.buySide = new OrderBookSide(Comparator.reverseOrder());
+            this.sellSide = new OrderBookSide(Comparator.naturalOrder());
+        } else {
+            this.buySide = OrderBookSide.withPriceLadder(Comparator.reverseOrder(), ladderTicks);
+            this.sellSide = OrderBookSide.withPriceLadder(Comparator.naturalOrder(), ladderTicks);
+        }
+        this.nodesByEngineId = new LongObjectMap<>();
+        this.nodesByForeignId = new HashMap<>();
+        this.ordersByOwner = new HashMap<>();
+    }
+
+    /**
+     * Assigns the order's engine id if it has none yet.
+     *
+     * <p>Ids increase by one per assignment, so replaying the same commands reproduces them.
+     * An order whose external id is already a larger decimal number (e.g. a replayed
+     * engine-minted id) keeps that number, so the id still resolves without a string lookup.
+     *
+     * @param order the order about to be submitted
+     * @return the order's engine id
+     */
+    public long assignEngineId(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        if (order.getEngineId() == 0) {
+            long numericId = order.getId() == null ? -1 : parseEngineId(order.getId());
+            lastEngineId = numericId > lastEngineId ? numericId : lastEngineId + 1;
+            order.assignEngineId(lastEngineId);
+        }
+        return order.getEngineId();
     }
 
     /**
@@ -46,44 +94,199 @@ public class OrderBook {
             throw new IllegalArgumentException("inactive orders cannot be added to the book");
         }
 
-        if (order.getSide() == OrderSide.BUY) {
-            buySide.addRestingOrder(order);
-        } else {
-            sellSide.addRestingOrder(order);
+        long engineId = assignEngineId(order);
+        OrderNode node = sideFor(order.getSide()).addRestingOrder(order);
+        if (nodesByEngineId.put(engineId, node) != null) {
+            throw new IllegalStateException("duplicate engine id " + engineId);
+        }
+        if (parseEngineId(order.getId()) != engineId) {
+            nodesByForeignId.put(order.getId(), node);
+        }
+        if (order.getOwner() != null) {
+            ordersByOwner.computeIfAbsent(order.getOwner(), owner -> new LinkedHashSet<>()).add(order);
         }
-        orderIndex.put(order.getId(), new OrderLocator(order.getSide(), order.getPrice()));
     }
 
     /**
-     * Cancel an order by id. Cancellation is idempotent and removes immediately. ONLY FOR TESTING - use {@link #cancelOrderAndGetLocator} for production so the matching engine can emit events with side and price.
+     * Cancel an order by id. Cancellation is idempotent and removes immediately.
      *
      * @param orderId the order id to cancel
      * @return {@code true} if the order was removed
+     * @see #cancelOrderOrNull(String)
      */
     public boolean cancelOrder(String orderId) {
-        return cancelOrderAndGetLocator(orderId).isPresent();
+        return cancelOrderOrNull(orderId) != null;
     }
 
     /**
-     * Cancel an order by id and return its locator when present.
+     * Cancel an order by id without allocating a result.
      *
      * @param orderId the order id to cancel
-     * @return locator of the cancelled order, or empty if not found
-     * @implNote Used by the matching engine to emit cancel events with side and price.
+     * @return the cancelled order (its side and price locate the level), or {@code null} if not found
+     */
+    public Order cancelOrderOrNull(String orderId) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        OrderNode node = findNode(orderId);
+        if (node == null) {
+            return null;
+        }
+        Order order = node.order();
+        unindex(order);
+        return sideFor(order.getSide()).cancel(node) ? order : null;
+    }
+
+    /**
+     * @param orderId an order id
+     * @return the resting order with this id, or {@code null}
+     */
+    public Order findOrder(String orderId) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        OrderNode node = findNode(orderId);
+        return node == null ? null : node.order();
+    }
+
+    /**
+     * @param engineId an engine id
+     * @return the resting order with this engine id, or {@code null}
+     */
+    public Order findOrder(long engineId) {
+        OrderNode node = nodesByEngineId.get(engineId);
+        return node == null ? null : node.order();
+    }
+
+    /**
+     * Lowers a resting order's quantity without losing its time priority.
+     *
+     * @param orderId the order id
+     * @param newRemainingQty new open quantity, below the current one
+     * @return {@code false} if the order is not resting
      */
-    public Optional<OrderLocator> cancelOrderAndGetLocator(String orderId) {
+    public boolean reduceOrder(String orderId, long newRemainingQty) {
         Objects.requireNonNull(orderId, "orderId must not be null");
-        OrderLocator locator = orderIndex.get(orderId);
-        if (locator == null) {
-            return Optional.empty();
+        OrderNode node = findNode(orderId);
+        if (node == null) {
+            return false;
+        }
+        sideFor(node.order().getSide()).reduceQuantity(node, newRemainingQty);
+        return true;
+    }
+
+    /**
+     * Cancel an order by engine id: one primitive-map probe, then an O(1) unlink.
+     *
+     * @param engineId the order's engine id
+     * @return the cancelled order, or {@code null} if not found
+     */
+    public Order cancelOrderOrNull(long engineId) {
+        OrderNode node = nodesByEngineId.get(engineId);
+        if (node == null) {
+            return null;
+        }
+        Order order = node.order();
+        unindex(order);
+        return sideFor(order.getSide()).cancel(node) ? order : null;
+    }
+
+    /**
+     * @param owner a client id
+     * @return the client's resting orders, oldest first (a copy)
+     */
+    public List<Order> ordersOf(String owner) {
+        Objects.requireNonNull(owner, "owner must not be null");
+        Set<Order> orders = ordersByOwner.get(owner);
+        return orders == null ? List.of() : new ArrayList<>(orders);
+    }
+
+    /**
+     * Cancels every resting order on one or both sides within a price range, level by level.
+     *
+     * @param side side to clear, or {@code null} for both
+     * @param minPrice lowest price to clear, inclusive
+     * @param maxPrice highest price to clear, inclusive
+     * @return the cancelled orders, bids before asks, each side in priority order
+     */
+    public List<Order> cancelRange(OrderSide side, long minPrice, long maxPrice) {
+        return cancelRange(side, minPrice, maxPrice, null);
+    }
+
+    /**
+     * Like {@link #cancelRange(OrderSide, long, long)}, limited to one client's orders. With an
+     * owner the client's own orders are cancelled one by one instead of walking whole levels.
+     *
+     * @param owner client whose orders to cancel, or {@code null} for everyone's
+     * @return the cancelled orders; a client's come oldest first
+     */
+    public List<Order> cancelRange(OrderSide side, long minPrice, long maxPrice, String owner) {
+        if (owner != null) {
+            List<Order> cancelled = new ArrayList<>();
+            for (Order order : ordersOf(owner)) {
+                long price = order.getPrice();
+                if ((side == null || order.getSide() == side) && price >= minPrice && price <= maxPrice
+                        && cancelOrderOrNull(order.getEngineId()) != null) {
+                    cancelled.add(order);
+                }
+            }
+            return cancelled;
+        }
+        List<Order> removed = new ArrayList<>();
+        if (side != OrderSide.SELL) {
+            buySide.cancelRange(minPrice, maxPrice, removed);
+        }
+        if (side != OrderSide.BUY) {
+            sellSide.cancelRange(minPrice, maxPrice, removed);
+        }
+        for (Order order : removed) {
+            unindex(order);
+        }
+        return removed;
+    }
+
+    /**
+     * Resolves an external id to its resting node: decimal ids go through the primitive map,
+     * anything else through the foreign-id map.
+     */
+    private OrderNode findNode(String orderId) {
+        long engineId = parseEngineId(orderId);
+        if (engineId > 0) {
+            OrderNode node = nodesByEngineId.get(engineId);
+            // A foreign id can look numeric ("007"), so confirm it is the same order.
+            if (node != null && node.order().getId().equals(orderId)) {
+                return node;
+            }
+        }
+        return nodesByForeignId.get(orderId);
+    }
+
+    private void unindex(Order order) {
+        nodesByEngineId.remove(order.getEngineId());
+        if (parseEngineId(order.getId()) != order.getEngineId()) {
+            nodesByForeignId.remove(order.getId());
         }
-        OrderBookSide side = sideFor(locator.side());
-        boolean removed = side.cancelOrderById(orderId, locator);
-        orderIndex.remove(orderId);
-        if (!removed) {
-            return Optional.empty();
+        if (order.getOwner() != null) {
+            Set<Order> owned = ordersByOwner.get(order.getOwner());
+            if (owned != null && owned.remove(order) && owned.isEmpty()) {
+                ordersByOwner.remove(order.getOwner());
+            }
         }
-        return Optional.of(locator);
+    }
+
+    /**
+     * @return the positive number {@code id} is the canonical decimal form of, or -1
+     */
+    static long parseEngineId(String id) {
+        int length = id.length();
+        if (length == 0 || length > 18 || id.charAt(0) == '0') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
     /**
@@ -101,7 +304,7 @@ public class OrderBook {
 
         // if an order was removed, also remove it from the index
         if (removed != null) {
-            orderIndex.remove(removed.getId());
+            unindex(removed);
         }
         
         return removed;
@@ -120,6 +323,40 @@ public class OrderBook {
         return buySide.bestPrice();
     }
 
+    /**
+     * @return counter that increases whenever either side changes
+     */
+    public long version() {
+        return buySide.version() + sellSide.version();
+    }
+
+    /**
+     * Builds an immutable depth view, reusing each side's cached snapshot when unchanged.
+     *
+     * @return both sides at the current version
+     */
+    public DepthSnapshot depthSnapshot() {
+        return new DepthSnapshot(version(), buySide.snapshotLevels(), sellSide.snapshotLevels());
+    }
+
+    /**
+     * Summarises the best level of each side.
+     *
+     * @param sequence sequence to stamp on the summary
+     * @return current top of book
+     */
+    public TopOfBook topOfBook(long sequence) {
+        return new TopOfBook(
+                sequence,
+                buySide.isEmpty() ? 0 : buySide.bestPrice(),
+                buySide.bestLevelQty(),
+                buySide.bestLevelCount(),
+                sellSide.isEmpty() ? 0 : sellSide.bestPrice(),
+                sellSide.bestLevelQty(),
+                sellSide.bestLevelCount()
+        );
+    }
+
     private OrderBookSide sideFor(OrderSide side) {
         return (side == OrderSide.BUY) ? buySide : sellSide;
     }
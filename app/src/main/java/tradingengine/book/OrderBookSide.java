@@ -5,16 +5,15 @@ import tradingengine.domain.Order;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.TreeMap;
+import java.util.function.LongPredicate;
 
 /**
  * Represents one side of an order book (either BUY or SELL).
  *
  * Responsibilities:
- *  - Maintain price priority using a sorted map
+ *  - Maintain price priority using a sorted map (or a tick-indexed ladder, see {@link #withPriceLadder})
  *  - Maintain time priority (FIFO) within each price level
  *  - Support fast access to the "best" price level
  *  - Support immediate cancellation by order id
@@ -42,13 +41,16 @@ public class OrderBookSide {
     public record LevelSnapshot(long price, long qty, int count, List<RestingOrderSnapshot> orders) {}
 
     /**
-     * Mapping from price -> FIFO queue of orders at that price.
-     *
-     * TreeMap enforces price ordering:
+     * Mapping from price -> FIFO queue of orders at that price, best price first:
      *  - BUY side: highest price first
      *  - SELL side: lowest price first
      */
-    private final NavigableMap<Long, OrdersQueue> priceLevels;
+    private final PriceLevels priceLevels;
+
+    // Bumped on every change to this side; the cached snapshot is reused while it matches.
+    private long version;
+    private long snapshotVersion = -1;
+    private List<LevelSnapshot> cachedSnapshot;
 
     /**
      * Create an OrderBookSide with a given price ordering rule.
@@ -57,7 +59,23 @@ public class OrderBookSide {
      *                        (e.g. reverseOrder for BUY, naturalOrder for SELL)
      */
     public OrderBookSide(Comparator<Long> priceComparator) {
-        this.priceLevels = new TreeMap<>(priceComparator);
+        this(new TreeMapPriceLevels(priceComparator));
+    }
+
+    private OrderBookSide(PriceLevels priceLevels) {
+        this.priceLevels = priceLevels;
+    }
+
+    /**
+     * Creates a side whose levels live in a tick-indexed array: O(1) best-level access and
+     * O(1) level lookup at a known price, with the same price-time semantics as the default.
+     * Prices outside the window fall back to a sorted map.
+     *
+     * @param priceComparator naturalOrder (SELL) or reverseOrder (BUY)
+     * @param ticks number of consecutive prices covered by the array window
+     */
+    public static OrderBookSide withPriceLadder(Comparator<Long> priceComparator, int ticks) {
+        return new OrderBookSide(new PriceLadder(priceComparator, ticks));
     }
 
     /**
@@ -72,7 +90,53 @@ public class OrderBookSide {
      * @throws NoSuchElementException if the book is empty
      */
     public long bestPrice() {
-        return priceLevels.firstKey();
+        return priceLevels.bestPrice();
+    }
+
+    /**
+     * @return resting quantity at the best price level, 0 if the side is empty
+     */
+    public long bestLevelQty() {
+        OrdersQueue best = priceLevels.best();
+        return best == null ? 0 : best.totalQty();
+    }
+
+    /**
+     * @return resting quantity at {@code price}, 0 if there is no such level
+     */
+    public long levelQty(long price) {
+        OrdersQueue queue = priceLevels.get(price);
+        return queue == null ? 0 : queue.totalQty();
+    }
+
+    /**
+     * @return number of orders at the best price level, 0 if the side is empty
+     */
+    public int bestLevelCount() {
+        OrdersQueue best = priceLevels.best();
+        return best == null ? 0 : best.activeCount();
+    }
+
+    /**
+     * Sums resting quantity best-first over the levels an incoming order can trade with, using
+     * each level's running total. Stops as soon as {@code needed} is reached, so a fill-or-kill
+     * check costs O(levels it would sweep) and never touches an order.
+     *
+     * @param crosses whether an incoming order trades at a level's price
+     * @param needed quantity the caller is looking for
+     * @return available quantity, capped at the first level total that reaches {@code needed}
+     */
+    public long availableQty(LongPredicate crosses, long needed) {
+        Objects.requireNonNull(crosses, "crosses must not be null");
+        long[] available = new long[1];
+        priceLevels.forEach((price, queue) -> {
+            if (!crosses.test(price)) {
+                return false;
+            }
+            available[0] += queue.totalQty();
+            return available[0] < needed;
+        });
+        return available[0];
     }
 
     /**
@@ -81,13 +145,8 @@ public class OrderBookSide {
      * @return the best resting order, or {@code null} if the book is empty
      */
     public Order peekBestOrderOrNull() {
-        if (priceLevels.isEmpty()) {
-            return null;
-        }
-
-        return priceLevels.firstEntry() // first = best price (due to comparator)
-                .getValue()             // gets the queue at that price
-                .peekOldest();          // gets the front of the FIFO queue
+        OrdersQueue best = priceLevels.best(); // queue at the best price
+        return best == null ? null : best.peekOldest(); // front of the FIFO queue
     }
 
     /**
@@ -98,18 +157,29 @@ public class OrderBookSide {
      *  - appended to the end of the FIFO queue at that price
      *
      * @param order the order to add
+     * @return the order's queue node, for O(1) cancellation via {@link #cancel(OrderNode)}
      */
-    public void addRestingOrder(Order order) {
+    public OrderNode addRestingOrder(Order order) {
         Objects.requireNonNull(order, "order must not be null");
 
-        long price = order.getPrice();
-        OrdersQueue queue = priceLevels.get(price);
-        if (queue == null) {
-            queue = new OrdersQueue();
-            priceLevels.put(price, queue);
-        }
+        version++;
+        return priceLevels.getOrCreate(order.getPrice()).add(order);
+    }
 
-        queue.add(order);
+    /**
+     * Fills the oldest order at the best price level, keeping the level's totals current.
+     *
+     * @param quantity quantity to execute
+     * @return quantity actually executed
+     * @throws NoSuchElementException if the side is empty
+     */
+    public long fillBestOrder(long quantity) {
+        OrdersQueue best = priceLevels.best();
+        if (best == null) {
+            throw new NoSuchElementException("no resting orders");
+        }
+        version++;
+        return best.fillOldest(quantity);
     }
 
     /**
@@ -118,21 +188,21 @@ public class OrderBookSide {
      * @return the removed order, or {@code null} if nothing was removed
      */
     public Order removeBestOrderIfInactive() {
-        var bestPriceLevel = priceLevels.firstEntry();
-        if (bestPriceLevel == null) {
+        OrdersQueue queue = priceLevels.best();
+        if (queue == null) {
             return null;
         }
 
-        OrdersQueue queue = bestPriceLevel.getValue();
         Order head = queue.peekOldest();
         if (head == null) {
             return null;
         }
 
         if (!head.isActive()) {
+            version++;
             Order removed = queue.removeOldest();
             if (queue.isEmpty()) {
-                priceLevels.pollFirstEntry();
+                priceLevels.remove(queue);
             }
             return removed;
         }
@@ -141,34 +211,73 @@ public class OrderBookSide {
     }
 
     /**
-     * Cancel a resting order by id using its locator.
+     * Cancel a resting order through its queue node: unlinks in O(1) and only touches the
+     * price-level storage when the level becomes empty, removing it by the key the level
+     * carries (O(1) in a price ladder, one tree descent with no boxing otherwise).
      *
-     * @param orderId the order id to cancel
-     * @param locator the side/price locator
-     * @return {@code true} if the order was removed
+     * @param node node returned by {@link #addRestingOrder(Order)}
+     * @return {@code true} if the order was still resting and is now cancelled
      */
-    public boolean cancelOrderById(String orderId, OrderLocator locator) {
-        Objects.requireNonNull(orderId, "orderId must not be null");
-        Objects.requireNonNull(locator, "locator must not be null");
-
-        // find the price level
-        OrdersQueue queue = priceLevels.get(locator.price());
+    public boolean cancel(OrderNode node) {
+        Objects.requireNonNull(node, "node must not be null");
+        OrdersQueue queue = node.queue;
         if (queue == null) {
             return false;
         }
 
-        
-        Order removed = queue.removeById(orderId);
-        if (removed == null) {
-            return false;
+        version++;
+        queue.remove(node);
+        node.order().cancel();
+        if (queue.isEmpty()) {
+            priceLevels.remove(queue);
         }
+        return true;
+    }
 
-        removed.cancel();
-        if (queue.isEmpty()) {
-            priceLevels.remove(locator.price());
+    /**
+     * Cancels every order on the levels priced within {@code [minPrice, maxPrice]}.
+     *
+     * <p>Levels are walked and emptied directly rather than cancelling order by order: each
+     * level is unlinked node by node and then dropped once. The walk seeks straight to the
+     * range, so levels priced better or worse than it are never visited.
+     *
+     * @param minPrice lowest price to clear, inclusive
+     * @param maxPrice highest price to clear, inclusive
+     * @param removed receives every order taken off the book (already-filled heads included)
+     */
+    public void cancelRange(long minPrice, long maxPrice, List<Order> removed) {
+        Objects.requireNonNull(removed, "removed must not be null");
+        List<OrdersQueue> levels = new ArrayList<>();
+        priceLevels.forEachInRange(minPrice, maxPrice, (price, queue) -> levels.add(queue));
+        if (levels.isEmpty()) {
+            return;
         }
 
-        return true;
+        version++;
+        for (OrdersQueue queue : levels) {
+            for (OrderNode node = queue.first(); node != null; node = queue.first()) {
+                queue.remove(node);
+                node.order().cancel();
+                removed.add(node.order());
+            }
+            priceLevels.remove(queue);
+        }
+    }
+
+    /**
+     * Lowers a resting order's quantity in place; it keeps its place in the FIFO.
+     *
+     * @param node node returned by {@link #addRestingOrder(Order)}
+     * @param newRemainingQty new open quantity, below the current one
+     */
+    public void reduceQuantity(OrderNode node, long newRemainingQty) {
+        Objects.requireNonNull(node, "node must not be null");
+        if (node.queue == null) {
+            throw new IllegalStateException("order is not resting");
+        }
+        version++;
+        node.order().reduceRemainingQty(newRemainingQty);
+        node.queue.recount(node);
     }
 
     /**
@@ -184,10 +293,7 @@ public class OrderBookSide {
             return sb.toString();
         }
 
-        for (var entry : priceLevels.entrySet()) {
-            long price = entry.getKey();
-            OrdersQueue q = entry.getValue();
-
+        priceLevels.forEach((price, q) -> {
             sb.append("price=").append(price).append("\n");
             for (Order o : q.snapshotFifo()) {
                 sb.append("  ")
@@ -196,39 +302,87 @@ public class OrderBookSide {
                   .append(" status=").append(o.getStatus().name())
                   .append("\n");
             }
-        }
+            return true;
+        });
 
         return sb.toString();
     }
 
     /**
-     * Returns an aggregated, immutable snapshot in current price-priority order.
+     * @return counter that changes whenever this side changes
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Returns an aggregated, immutable snapshot in current price-priority order, with orders.
      * Used by HTTP snapshot APIs.
+     *
+     * <p>The result is cached until the side changes, and levels that did not change since the
+     * previous snapshot reuse their previous {@link LevelSnapshot}.
      */
     public List<LevelSnapshot> snapshotLevels() {
-        List<LevelSnapshot> levels = new ArrayList<>(priceLevels.size());
-        for (var entry : priceLevels.entrySet()) {
-            long price = entry.getKey();
-            OrdersQueue queue = entry.getValue();
+        if (snapshotVersion != version) {
+            cachedSnapshot = snapshotLevels(true);
+            snapshotVersion = version;
+        }
+        return cachedSnapshot;
+    }
+
+    /**
+     * Returns an aggregated, immutable snapshot in current price-priority order.
+     *
+     * <p>Without orders this is O(levels): quantity and count come from each level's running
+     * totals. With orders, each level's FIFO is walked once to list its active orders.
+     *
+     * @param includeOrders whether to list each level's resting orders
+     */
+    public List<LevelSnapshot> snapshotLevels(boolean includeOrders) {
+        return snapshotLevels(Integer.MAX_VALUE, includeOrders);
+    }
+
+    /**
+     * Returns the best {@code maxLevels} levels in price-priority order. Iteration stops at the
+     * last requested level, so the cost is O(maxLevels) without orders.
+     *
+     * @param maxLevels maximum number of levels to return
+     * @param includeOrders whether to list each level's resting orders
+     */
+    public List<LevelSnapshot> snapshotLevels(int maxLevels, boolean includeOrders) {
+        if (maxLevels <= 0) {
+            throw new IllegalArgumentException("maxLevels must be positive");
+        }
+        List<LevelSnapshot> levels = new ArrayList<>(Math.min(maxLevels, priceLevels.size()));
+        priceLevels.forEach((price, queue) -> {
+            if (!includeOrders) {
+                if (queue.activeCount() > 0) {
+                    levels.add(new LevelSnapshot(price, queue.totalQty(), queue.activeCount(), List.of()));
+                }
+                return levels.size() < maxLevels;
+            }
+            if (queue.cachedSnapshot != null) {
+                levels.add(queue.cachedSnapshot);
+                return levels.size() < maxLevels;
+            }
             long qty = 0L;
-            int count = 0;
-            List<RestingOrderSnapshot> orders = new ArrayList<>();
-            for (Order order : queue.snapshotFifo()) {
+            List<RestingOrderSnapshot> orders = new ArrayList<>(queue.size());
+            for (OrderNode node = queue.first(); node != null; node = node.next) {
+                Order order = node.order();
                 if (!order.isActive()) {
                     continue;
                 }
                 long remaining = order.getRemainingQty();
-                if (remaining <= 0) {
-                    continue;
-                }
                 qty += remaining;
-                count++;
                 orders.add(new RestingOrderSnapshot(order.getId(), remaining));
             }
-            if (count > 0) {
-                levels.add(new LevelSnapshot(price, qty, count, List.copyOf(orders)));
+            if (!orders.isEmpty()) {
+                LevelSnapshot level = new LevelSnapshot(price, qty, orders.size(), List.copyOf(orders));
+                queue.cachedSnapshot = level;
+                levels.add(level);
             }
-        }
+            return levels.size() < maxLevels;
+        });
         return List.copyOf(levels);
     }
 }
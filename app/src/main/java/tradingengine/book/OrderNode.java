@@ -0,0 +1,36 @@
+package tradingengine.book;
+
+import tradingengine.domain.Order;
+
+/**
+ * A resting order's place in its price level: the order plus intrusive FIFO links.
+ *
+ * <p>Created once when the order rests and referenced directly from {@link OrderBook}'s
+ * order index, so peek, pop and cancel-by-id never hash or allocate inside the queue.
+ */
+public final class OrderNode {
+
+    private final Order order;
+
+    // Maintained by OrdersQueue; all null once the node is unlinked.
+    OrderNode prev;
+    OrderNode next;
+    OrdersQueue queue;
+
+    // Quantity this node contributes to its level's running total (0 once inactive).
+    long countedQty;
+
+    OrderNode(Order order) {
+        this.order = order;
+    }
+
+    /** @return the resting order */
+    public Order order() {
+        return order;
+    }
+
+    /** @return true while the node is linked into a price level */
+    public boolean isLinked() {
+        return queue != null;
+    }
+}
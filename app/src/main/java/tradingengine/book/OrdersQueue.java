@@ -3,61 +3,128 @@ package tradingengine.book;
 import tradingengine.domain.Order;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 /**
  * Maintains FIFO ordering for orders at a single price level.
+ *
+ * <p>Implemented as an intrusive doubly-linked list of {@link OrderNode}s: append, peek,
+ * pop and unlinking a known node are O(1) with no hashing and no iterator allocation.
+ *
+ * <p>The level also keeps running totals of visible quantity and active order count, updated
+ * on add, fill ({@link #fillOldest}) and removal, so aggregated depth never walks the orders.
  */
 public final class OrdersQueue {
 
-    private final LinkedHashMap<String, Order> ordersQueue = new LinkedHashMap<>();
+    private OrderNode head; // oldest
+    private OrderNode tail; // newest
+    private int size;
+    private long totalQty;   // sum of nodes' countedQty
+    private int activeCount; // nodes with countedQty > 0
+
+    // Last snapshot of this level with orders; dropped on any change so unchanged levels are
+    // shared between successive book snapshots.
+    OrderBookSide.LevelSnapshot cachedSnapshot;
+
+    // This level's price, boxed once when PriceLevels creates the level (null for standalone
+    // queues). Lets an emptied level be removed without re-deriving or re-boxing its price.
+    Long priceKey;
 
     /** @return true if there are no orders at this price level */
     public boolean isEmpty() {
-        return ordersQueue.isEmpty();
+        return head == null;
+    }
+
+    /** @return number of orders at this price level */
+    public int size() {
+        return size;
+    }
+
+    /** @return remaining quantity of the active orders at this level */
+    public long totalQty() {
+        return totalQty;
+    }
+
+    /** @return number of active orders at this level */
+    public int activeCount() {
+        return activeCount;
     }
 
     /** Add a new order to this price level.
      * @param order The order to add
+     * @return the node now holding the order, for O(1) removal later
      */
-    public void add(Order order) {
+    public OrderNode add(Order order) {
         Objects.requireNonNull(order, "order must not be null");
-        ordersQueue.put(order.getId(), order);
+        OrderNode node = new OrderNode(order);
+        node.queue = this;
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        recount(node);
+        return node;
     }
 
     /** Peek at the oldest order without removing it.
      * @return The oldest order or null if none
      */
     public Order peekOldest() {
-        if (ordersQueue.isEmpty()) {
-            return null;
+        return head == null ? null : head.order();
+    }
+
+    /**
+     * Fills the oldest order and updates the level totals.
+     *
+     * @param quantity quantity to execute
+     * @return quantity actually executed
+     * @throws NoSuchElementException if the level is empty
+     */
+    public long fillOldest(long quantity) {
+        if (head == null) {
+            throw new NoSuchElementException("price level is empty");
         }
-        return ordersQueue.values().iterator().next();
+        long filled = head.order().execute(quantity);
+        recount(head);
+        return filled;
     }
 
     /** Remove and return the oldest order.
      * @return The removed order or null if none
      */
     public Order removeOldest() {
-        var iterator = ordersQueue.entrySet().iterator();
-        if (!iterator.hasNext()) {
+        OrderNode oldest = head;
+        if (oldest == null) {
             return null;
         }
-        Map.Entry<String, Order> entry = iterator.next();
-        iterator.remove();
-        return entry.getValue();
+        unlink(oldest);
+        return oldest.order();
     }
 
-    /** Remove an order by its ID.
-     * @param orderId The ID of the order to remove
-     * @return The removed order or null if not found
+    /**
+     * Unlinks a node previously returned by {@link #add(Order)}.
+     *
+     * @param node node to remove
+     * @return {@code true} if the node was in this queue
      */
-    public Order removeById(String orderId) {
-        Objects.requireNonNull(orderId, "orderId must not be null");
-        return ordersQueue.remove(orderId);
+    public boolean remove(OrderNode node) {
+        Objects.requireNonNull(node, "node must not be null");
+        if (node.queue != this) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /** @return the oldest node, for allocation-free walks via {@link OrderNode#next} */
+    OrderNode first() {
+        return head;
     }
 
     /**
@@ -65,6 +132,49 @@ public final class OrdersQueue {
      * Used only for debugging/UI dumps.
      */
     public List<Order> snapshotFifo() {
-        return new ArrayList<>(ordersQueue.values());
+        List<Order> orders = new ArrayList<>(size);
+        for (OrderNode node = head; node != null; node = node.next) {
+            orders.add(node.order());
+        }
+        return orders;
+    }
+
+    private void unlink(OrderNode node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.queue = null;
+        size--;
+        totalQty -= node.countedQty;
+        if (node.countedQty > 0) {
+            activeCount--;
+        }
+        node.countedQty = 0;
+        cachedSnapshot = null;
+    }
+
+    /**
+     * Re-reads a linked node's order into the level totals.
+     */
+    void recount(OrderNode node) {
+        Order order = node.order();
+        long visible = order.isActive() ? order.getRemainingQty() : 0;
+        totalQty += visible - node.countedQty;
+        if (node.countedQty > 0 && visible == 0) {
+            activeCount--;
+        } else if (node.countedQty == 0 && visible > 0) {
+            activeCount++;
+        }
+        node.countedQty = visible;
+        cachedSnapshot = null;
     }
 }
@@ -0,0 +1,265 @@
+package tradingengine.book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Tick-indexed {@link PriceLevels}: a fixed window of {@code capacity} consecutive prices
+ * stored in an array, so a level at a known price is one subtraction and one array load.
+ * The best level's index is cached, which makes best-level access O(1).
+ *
+ * <p>The window is anchored around the first price it sees and re-anchored around the
+ * next price whenever it becomes empty, so it follows the market. Prices outside the
+ * window go to a small {@link TreeMapPriceLevels} fallback, keeping semantics identical
+ * for any price. When the best level is removed, the next one is found by scanning the
+ * array away from the touch; that scan is bounded by the gap to the next level, which is
+ * short for liquid books.
+ */
+final class PriceLadder implements PriceLevels {
+
+    private final Comparator<Long> priceComparator;
+    private final boolean descending; // BUY side: higher price = better = higher index
+    private final OrdersQueue[] slots;
+    private final TreeMapPriceLevels outliers;
+
+    private boolean anchored;
+    private long base;           // price held by slots[0]
+    private int ladderLevels;    // non-null slots
+    private int bestIndex = -1;  // -1 when the window holds no levels
+
+    /**
+     * @param priceComparator natural order (asks) or reverse order (bids)
+     * @param capacity number of consecutive prices the window covers
+     */
+    PriceLadder(Comparator<Long> priceComparator, int capacity) {
+        this.priceComparator = Objects.requireNonNull(priceComparator, "priceComparator must not be null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int direction = priceComparator.compare(1L, 2L);
+        if (direction == 0) {
+            throw new IllegalArgumentException("priceComparator must order distinct prices");
+        }
+        this.descending = direction > 0;
+        this.slots = new OrdersQueue[capacity];
+        this.outliers = new TreeMapPriceLevels(priceComparator);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ladderLevels == 0 && outliers.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return ladderLevels + outliers.size();
+    }
+
+    @Override
+    public long bestPrice() {
+        if (ladderLevels == 0) {
+            if (outliers.isEmpty()) {
+                throw new NoSuchElementException("no price levels");
+            }
+            return outliers.bestPrice();
+        }
+        long ladderBest = base + bestIndex;
+        if (outliers.isEmpty()) {
+            return ladderBest;
+        }
+        long outlierBest = outliers.bestPrice();
+        return priceComparator.compare(outlierBest, ladderBest) < 0 ? outlierBest : ladderBest;
+    }
+
+    @Override
+    public OrdersQueue best() {
+        if (ladderLevels == 0) {
+            return outliers.best();
+        }
+        if (outliers.isEmpty()) {
+            return slots[bestIndex];
+        }
+        long outlierBest = outliers.bestPrice();
+        return priceComparator.compare(outlierBest, base + bestIndex) < 0 ? outliers.best() : slots[bestIndex];
+    }
+
+    @Override
+    public OrdersQueue get(long price) {
+        int index = indexOf(price);
+        return index < 0 ? outliers.get(price) : slots[index];
+    }
+
+    @Override
+    public OrdersQueue getOrCreate(long price) {
+        if (!anchored || (ladderLevels == 0 && indexOf(price) < 0)) {
+            anchor(price);
+        }
+        int index = indexOf(price);
+        if (index < 0) {
+            return outliers.getOrCreate(price);
+        }
+        OrdersQueue queue = slots[index];
+        if (queue == null) {
+            queue = new OrdersQueue();
+            queue.priceKey = price;
+            place(index, queue);
+        }
+        return queue;
+    }
+
+    @Override
+    public void remove(long price) {
+        int index = indexOf(price);
+        if (index < 0) {
+            outliers.remove(price);
+            return;
+        }
+        if (slots[index] == null) {
+            return;
+        }
+        slots[index] = null;
+        ladderLevels--;
+        if (index == bestIndex) {
+            bestIndex = ladderLevels == 0 ? -1 : nextOccupied(index);
+        }
+    }
+
+    @Override
+    public void remove(OrdersQueue level) {
+        long price = level.priceKey;
+        if (indexOf(price) < 0) {
+            outliers.remove(level);
+        } else {
+            remove(price);
+        }
+    }
+
+    @Override
+    public void forEach(LevelVisitor visitor) {
+        // Outliers are outside the window, so each one is either better or worse than every
+        // price in it: walk better outliers, then the window, then worse outliers.
+        NavigableMap<Long, OrdersQueue> outlierMap = outliers.asMap();
+        long windowBest = descending ? base + slots.length - 1 : base;
+        boolean hasWindow = anchored && ladderLevels > 0;
+
+        NavigableMap<Long, OrdersQueue> better = hasWindow ? outlierMap.headMap(windowBest, false) : outlierMap;
+        for (Map.Entry<Long, OrdersQueue> entry : better.entrySet()) {
+            if (!visitor.visit(entry.getKey(), entry.getValue())) {
+                return;
+            }
+        }
+        if (!hasWindow) {
+            return;
+        }
+
+        int step = descending ? -1 : 1;
+        for (int i = bestIndex; i >= 0 && i < slots.length; i += step) {
+            OrdersQueue queue = slots[i];
+            if (queue != null && !visitor.visit(base + i, queue)) {
+                return;
+            }
+        }
+
+        for (Map.Entry<Long, OrdersQueue> entry : outlierMap.tailMap(windowBest, false).entrySet()) {
+            if (!visitor.visit(entry.getKey(), entry.getValue())) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void forEachInRange(long minPrice, long maxPrice, LevelVisitor visitor) {
+        // Same three parts as forEach, each cut down to the range.
+        NavigableMap<Long, OrdersQueue> outlierRange = outliers.range(minPrice, maxPrice);
+        long windowBest = descending ? base + slots.length - 1 : base;
+        boolean hasWindow = anchored && ladderLevels > 0;
+
+        // A view of the range can only be split at a key inside it.
+        NavigableMap<Long, OrdersQueue> better = outlierRange;
+        NavigableMap<Long, OrdersQueue> worse = Collections.emptyNavigableMap();
+        if (hasWindow) {
+            if (priceComparator.compare(windowBest, descending ? maxPrice : minPrice) < 0) {
+                better = Collections.emptyNavigableMap();
+                worse = outlierRange;
+            } else if (priceComparator.compare(windowBest, descending ? minPrice : maxPrice) <= 0) {
+                better = outlierRange.headMap(windowBest, false);
+                worse = outlierRange.tailMap(windowBest, false);
+            }
+        }
+        if (!TreeMapPriceLevels.visit(better, visitor) || !hasWindow) {
+            return;
+        }
+
+        long windowLast = base + slots.length - 1;
+        if (minPrice <= windowLast && maxPrice >= base) {
+            // Clamp the range to the window without computing an offset that could overflow.
+            int low = minPrice <= base ? 0 : (int) (minPrice - base);
+            int high = maxPrice >= windowLast ? slots.length - 1 : (int) (maxPrice - base);
+            int step = descending ? -1 : 1;
+            for (int i = descending ? high : low; i >= low && i <= high; i += step) {
+                OrdersQueue queue = slots[i];
+                if (queue != null && !visitor.visit(base + i, queue)) {
+                    return;
+                }
+            }
+        }
+
+        TreeMapPriceLevels.visit(worse, visitor);
+    }
+
+    private int indexOf(long price) {
+        if (!anchored) {
+            return -1;
+        }
+        long offset = price - base;
+        return (offset >= 0 && offset < slots.length) ? (int) offset : -1;
+    }
+
+    private void place(int index, OrdersQueue queue) {
+        slots[index] = queue;
+        ladderLevels++;
+        if (bestIndex < 0 || (descending ? index > bestIndex : index < bestIndex)) {
+            bestIndex = index;
+        }
+    }
+
+    /**
+     * Centers the (empty) window on {@code price} and pulls in outliers that now fall inside it.
+     */
+    private void anchor(long price) {
+        base = price - slots.length / 2;
+        anchored = true;
+        bestIndex = -1;
+
+        if (outliers.isEmpty()) {
+            return;
+        }
+        List<Long> moved = new ArrayList<>();
+        for (Map.Entry<Long, OrdersQueue> entry : outliers.asMap().entrySet()) {
+            int index = indexOf(entry.getKey());
+            if (index >= 0) {
+                place(index, entry.getValue());
+                moved.add(entry.getKey());
+            }
+        }
+        for (Long p : moved) {
+            outliers.remove(p);
+        }
+    }
+
+    private int nextOccupied(int from) {
+        int step = descending ? -1 : 1;
+        for (int i = from + step; i >= 0 && i < slots.length; i += step) {
+            if (slots[i] != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
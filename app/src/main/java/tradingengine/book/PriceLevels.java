@@ -0,0 +1,63 @@
+package tradingengine.book;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Price-level storage behind one {@link OrderBookSide}: maps a price to its FIFO queue and
+ * keeps levels in price priority (best first).
+ *
+ * <p>Implementations only store levels; they never look inside the queues. An empty queue
+ * is removed by the caller via {@link #remove(OrdersQueue)}.
+ */
+interface PriceLevels {
+
+    /**
+     * Receives levels in priority order.
+     */
+    @FunctionalInterface
+    interface LevelVisitor {
+        /**
+         * @return {@code false} to stop the walk
+         */
+        boolean visit(long price, OrdersQueue queue);
+    }
+
+    boolean isEmpty();
+
+    /** @return number of non-removed levels */
+    int size();
+
+    /**
+     * @return best price
+     * @throws NoSuchElementException if there are no levels
+     */
+    long bestPrice();
+
+    /** @return queue at the best price, or {@code null} if there are no levels */
+    OrdersQueue best();
+
+    /** @return queue at {@code price}, or {@code null} if there is no such level */
+    OrdersQueue get(long price);
+
+    /** @return queue at {@code price}, created empty if needed */
+    OrdersQueue getOrCreate(long price);
+
+    /** Removes the level at {@code price}, if present. */
+    void remove(long price);
+
+    /**
+     * Removes a level obtained from {@link #getOrCreate(long)}, using the price it carries.
+     */
+    default void remove(OrdersQueue level) {
+        remove(level.priceKey.longValue());
+    }
+
+    /** Walks levels best-first until the visitor returns {@code false}. */
+    void forEach(LevelVisitor visitor);
+
+    /**
+     * Walks the levels priced within {@code [minPrice, maxPrice]} best-first until the visitor
+     * returns {@code false}, starting at the range bound: levels outside it are never visited.
+     */
+    void forEachInRange(long minPrice, long maxPrice, LevelVisitor visitor);
+}
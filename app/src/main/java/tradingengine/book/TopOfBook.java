@@ -0,0 +1,45 @@
+package tradingengine.book;
+
+/**
+ * Immutable best bid/ask summary, published by the matching thread for lock-free readers.
+ *
+ * <p>An empty side has price, quantity and count 0.
+ *
+ * @param sequence increases by one each time a changed top of book is published
+ * @param bidPrice best bid price
+ * @param bidQty   resting quantity at the best bid
+ * @param bidCount orders at the best bid
+ * @param askPrice best ask price
+ * @param askQty   resting quantity at the best ask
+ * @param askCount orders at the best ask
+ */
+public record TopOfBook(
+        long sequence,
+        long bidPrice,
+        long bidQty,
+        int bidCount,
+        long askPrice,
+        long askQty,
+        int askCount
+) {
+    /** Top of an empty book before anything is published. */
+    public static final TopOfBook EMPTY = new TopOfBook(0, 0, 0, 0, 0, 0, 0);
+
+    /** @return true if there is at least one bid */
+    public boolean hasBid() {
+        return bidCount > 0;
+    }
+
+    /** @return true if there is at least one ask */
+    public boolean hasAsk() {
+        return askCount > 0;
+    }
+
+    /**
+     * @return true if both sides match {@code other}, ignoring the sequence
+     */
+    public boolean sameQuoteAs(TopOfBook other) {
+        return bidPrice == other.bidPrice && bidQty == other.bidQty && bidCount == other.bidCount
+                && askPrice == other.askPrice && askQty == other.askQty && askCount == other.askCount;
+    }
+}
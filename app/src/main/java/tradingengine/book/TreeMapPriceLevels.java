@@ -0,0 +1,135 @@
+package tradingengine.book;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Default {@link PriceLevels}: a {@code TreeMap} ordered by the side's price comparator.
+ * O(log n) per operation, unbounded price range.
+ */
+final class TreeMapPriceLevels implements PriceLevels {
+
+    /*
+     * TreeMap enforces price ordering:
+     *  - BUY side: highest price first
+     *  - SELL side: lowest price first
+     */
+    private final NavigableMap<Long, OrdersQueue> levels;
+
+    // Cached best level. Keeping the map's own boxed key lets the matching loop read and
+    // remove the best level without boxing a price or allocating an exported entry.
+    private Long bestKey;
+    private OrdersQueue bestQueue;
+
+    TreeMapPriceLevels(Comparator<Long> priceComparator) {
+        this.levels = new TreeMap<>(priceComparator);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return levels.size();
+    }
+
+    @Override
+    public long bestPrice() {
+        if (bestKey == null) {
+            throw new NoSuchElementException("no price levels");
+        }
+        return bestKey;
+    }
+
+    @Override
+    public OrdersQueue best() {
+        return bestQueue;
+    }
+
+    @Override
+    public OrdersQueue get(long price) {
+        return levels.get(price);
+    }
+
+    @Override
+    public OrdersQueue getOrCreate(long price) {
+        if (bestKey != null && bestKey == price) {
+            return bestQueue;
+        }
+        OrdersQueue queue = levels.get(price);
+        if (queue == null) {
+            queue = new OrdersQueue();
+            queue.priceKey = price;
+            levels.put(queue.priceKey, queue);
+            refreshBest();
+        }
+        return queue;
+    }
+
+    @Override
+    public void remove(OrdersQueue level) {
+        // The level's own key: no boxing, one tree descent.
+        if (levels.remove(level.priceKey) != null) {
+            refreshBest();
+        }
+    }
+
+    @Override
+    public void remove(long price) {
+        if (bestKey != null && bestKey == price) {
+            levels.remove(bestKey);
+        } else {
+            levels.remove(price);
+        }
+        refreshBest();
+    }
+
+    private void refreshBest() {
+        if (levels.isEmpty()) {
+            bestKey = null;
+            bestQueue = null;
+        } else {
+            bestKey = levels.firstKey();
+            bestQueue = levels.get(bestKey);
+        }
+    }
+
+    /** Live view for {@link PriceLadder}, which keeps its out-of-window prices here. */
+    NavigableMap<Long, OrdersQueue> asMap() {
+        return levels;
+    }
+
+    @Override
+    public void forEach(LevelVisitor visitor) {
+        visit(levels, visitor);
+    }
+
+    @Override
+    public void forEachInRange(long minPrice, long maxPrice, LevelVisitor visitor) {
+        visit(range(minPrice, maxPrice), visitor);
+    }
+
+    /**
+     * @return live view of the levels priced within {@code [minPrice, maxPrice]}, best first
+     */
+    NavigableMap<Long, OrdersQueue> range(long minPrice, long maxPrice) {
+        // The bids' comparator is reversed, so there the better bound is the higher price.
+        return levels.comparator().compare(minPrice, maxPrice) <= 0
+                ? levels.subMap(minPrice, true, maxPrice, true)
+                : levels.subMap(maxPrice, true, minPrice, true);
+    }
+
+    static boolean visit(NavigableMap<Long, OrdersQueue> levels, LevelVisitor visitor) {
+        for (Map.Entry<Long, OrdersQueue> entry : levels.entrySet()) {
+            if (!visitor.visit(entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
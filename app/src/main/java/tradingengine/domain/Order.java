@@ -5,11 +5,22 @@ import java.util.Objects;
 import java.util.UUID;
 
 public class Order {
-    // Immutable order fields
-    private final String id;
+    // Immutable order fields (the id is fixed once assigned)
+    private String id;
     private final OrderSide side;
     private final long price;
-    private final Instant timestamp;
+    private Instant timestamp; // replaced by the engine's time when the order is submitted
+
+    // Dense numeric id assigned by the book; 0 until then
+    private long engineId;
+
+    // Client that owns the order (mass cancel / mass quote scope); null if anonymous
+    private String owner;
+
+    private TimeInForce timeInForce = TimeInForce.GTC;
+    private Instant expireAt; // GTT only
+    private long stopPrice;   // 0 unless a stop order
+    private OrderType type = OrderType.LIMIT;
 
     // Mutable order fields
     private long remainingQty;
@@ -23,16 +34,228 @@ public class Order {
      * Used during recovery/replay so order IDs remain stable across restarts.
      */
     public Order(String id, OrderSide side, long price, long quantity, Instant timestamp) {
-        this.id = Objects.requireNonNull(id, "id must not be null");
+        this(id, side, price, quantity, timestamp, true);
+    }
+
+    private Order(String id, OrderSide side, long price, long quantity, Instant timestamp, boolean idRequired) {
+        this.id = idRequired ? Objects.requireNonNull(id, "id must not be null") : null;
         this.side = OrderConstraints.requireValidSide(side);
         this.price = OrderConstraints.requireValidPrice(price);
         this.remainingQty = OrderConstraints.requireValidQuantity(quantity);
         this.timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
     }
 
+    /**
+     * Creates an order whose id is minted by the book from its engine id when it is submitted.
+     */
+    public static Order withEngineAssignedId(OrderSide side, long price, long quantity, Instant timestamp) {
+        return new Order(null, side, price, quantity, timestamp, false);
+    }
+
+    /**
+     * Creates the re-queued form of this submitted order at a new price and quantity, for an
+     * amend or a quote that grows a level. It keeps the id, engine id, owner, type, time in force
+     * and expiry, and takes {@code newTimestamp} so it joins the back of its level. The stop
+     * price is not carried: an order in the book has already triggered.
+     *
+     * @throws IllegalStateException if this order has not been submitted
+     */
+    public Order requeued(long newPrice, long newQuantity, Instant newTimestamp) {
+        if (engineId == 0) {
+            throw new IllegalStateException("order not submitted");
+        }
+        Order copy = new Order(id, side, newPrice, newQuantity, newTimestamp);
+        copy.engineId = engineId;
+        copy.owner = owner;
+        copy.type = type;
+        copy.timeInForce = timeInForce;
+        copy.expireAt = expireAt;
+        return copy;
+    }
+
+    /**
+     * @return the external order id, or {@code null} for an engine-assigned order not yet submitted
+     */
     public String getId() {
         return id;
     }
+
+    /**
+     * @return the book's numeric id for this order, or 0 if not yet assigned
+     */
+    public long getEngineId() {
+        return engineId;
+    }
+
+    /**
+     * Assigns the book's numeric id. Orders created without an id take its decimal form.
+     *
+     * @param engineId positive id, unique within the book
+     */
+    public void assignEngineId(long engineId) {
+        if (engineId <= 0) {
+            throw new IllegalArgumentException("engineId must be positive");
+        }
+        if (this.engineId != 0) {
+            throw new IllegalStateException("engineId already assigned");
+        }
+        this.engineId = engineId;
+        if (id == null) {
+            id = Long.toString(engineId);
+        }
+    }
+
+    /**
+     * @return the owning client, or {@code null} if the order has none
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Tags the order with its owning client before it is submitted.
+     *
+     * @param owner non-blank client id
+     * @return this order, for chaining at construction
+     */
+    public Order assignOwner(String owner) {
+        Objects.requireNonNull(owner, "owner must not be null");
+        if (owner.isBlank()) {
+            throw new IllegalArgumentException("owner must not be blank");
+        }
+        if (this.owner != null) {
+            throw new IllegalStateException("owner already assigned");
+        }
+        this.owner = owner;
+        return this;
+    }
+
+    /**
+     * @return how long the order stays eligible to trade; GTC unless assigned
+     */
+    public TimeInForce getTimeInForce() {
+        return timeInForce;
+    }
+
+    /**
+     * Sets the time in force before the order is submitted.
+     *
+     * @param timeInForce GTC, IOC or FOK
+     * @return this order, for chaining at construction
+     */
+    public Order assignTimeInForce(TimeInForce timeInForce) {
+        Objects.requireNonNull(timeInForce, "timeInForce must not be null");
+        if (timeInForce == TimeInForce.GTT) {
+            throw new IllegalArgumentException("GTT needs an expiry time; use assignGoodTillTime");
+        }
+        if (engineId != 0) {
+            throw new IllegalStateException("order already submitted");
+        }
+        this.timeInForce = timeInForce;
+        return this;
+    }
+
+    /**
+     * Makes this a good-till-time order before it is submitted.
+     *
+     * @param expireAt time at which any resting remainder is cancelled
+     * @return this order, for chaining at construction
+     */
+    public Order assignGoodTillTime(Instant expireAt) {
+        Objects.requireNonNull(expireAt, "expireAt must not be null");
+        if (engineId != 0) {
+            throw new IllegalStateException("order already submitted");
+        }
+        if (stopPrice != 0) {
+            throw new IllegalArgumentException("stop orders cannot be GTT");
+        }
+        if (type == OrderType.MARKET) {
+            throw new IllegalArgumentException("market orders cannot be GTT");
+        }
+        this.timeInForce = TimeInForce.GTT;
+        this.expireAt = expireAt;
+        return this;
+    }
+
+    /**
+     * @return expiry time of a GTT order, or {@code null}
+     */
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    /**
+     * @return LIMIT unless assigned
+     */
+    public OrderType getType() {
+        return type;
+    }
+
+    /**
+     * Makes this a market order before it is submitted. Its price becomes a protection limit:
+     * it sweeps the best opposite levels up to that price, and whatever is left is cancelled
+     * rather than resting.
+     *
+     * @return this order, for chaining at construction
+     */
+    public Order assignMarket() {
+        if (engineId != 0) {
+            throw new IllegalStateException("order already submitted");
+        }
+        if (timeInForce == TimeInForce.GTT) {
+            throw new IllegalArgumentException("market orders cannot be GTT");
+        }
+        this.type = OrderType.MARKET;
+        return this;
+    }
+
+    /**
+     * @return whether an unfilled remainder rests in the book: limit orders that are GTC or GTT
+     */
+    public boolean canRest() {
+        return type == OrderType.LIMIT && timeInForce.rests();
+    }
+
+    /**
+     * @return the stop price of a stop order, or 0
+     */
+    public long getStopPrice() {
+        return stopPrice;
+    }
+
+    /**
+     * Stamps the order with the engine's time as it is submitted, before it is journaled, so
+     * journal records and trades follow the order commands were applied in rather than the
+     * clocks of the threads that built them.
+     *
+     * @param timestamp the submitting command's engine time
+     */
+    public void assignTimestamp(Instant timestamp) {
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        if (engineId != 0) {
+            throw new IllegalStateException("order already submitted");
+        }
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Makes this a stop order before it is submitted: it waits off the book until the last
+     * trade price reaches {@code stopPrice}, then enters as a normal limit (or market) order.
+     *
+     * @param stopPrice positive trigger price
+     * @return this order, for chaining at construction
+     */
+    public Order assignStopPrice(long stopPrice) {
+        OrderConstraints.requireValidPrice(stopPrice);
+        if (engineId != 0) {
+            throw new IllegalStateException("order already submitted");
+        }
+        if (timeInForce == TimeInForce.GTT) {
+            throw new IllegalArgumentException("stop orders cannot be GTT");
+        }
+        this.stopPrice = stopPrice;
+        return this;
+    }
     public OrderSide getSide() {
         return side;
     }
@@ -86,6 +309,20 @@ public class Order {
         return filledQty;
     }
 
+    /**
+     * Lower the open quantity in place (an amend down). Fill history and status are kept.
+     * @param newRemainingQty new open quantity, positive and below the current one
+     */
+    public void reduceRemainingQty(long newRemainingQty) {
+        if (!isActive()) {
+            throw new IllegalStateException("Cannot reduce an inactive order");
+        }
+        if (newRemainingQty <= 0 || newRemainingQty >= remainingQty) {
+            throw new IllegalArgumentException("New quantity must be positive and below the remaining quantity");
+        }
+        remainingQty = newRemainingQty;
+    }
+
     /** Cancel the order if it is not already cancelled or filled */
     public void cancel() {
         if (status == OrderStatus.CANCELLED || status == OrderStatus.FILLED) {
@@ -0,0 +1,14 @@
+package tradingengine.domain;
+
+/**
+ * How an order's price is used.
+ */
+public enum OrderType {
+    /** Trades at its price or better; a remainder may rest there. */
+    LIMIT,
+    /**
+     * Sweeps the opposite side at the best prices available, no further than its price, which
+     * acts as a protection limit; never rests.
+     */
+    MARKET
+}
@@ -0,0 +1,22 @@
+package tradingengine.domain;
+
+/**
+ * How long an order stays eligible to trade.
+ */
+public enum TimeInForce {
+    /** Good till cancelled: any unfilled remainder rests in the book. */
+    GTC,
+    /** Immediate or cancel: fills what it can on arrival, the remainder is cancelled. */
+    IOC,
+    /** Fill or kill: fills completely on arrival or not at all; never rests. */
+    FOK,
+    /** Good till time: rests like GTC until its expiry time, then is cancelled. */
+    GTT;
+
+    /**
+     * @return whether an unfilled remainder rests in the book
+     */
+    public boolean rests() {
+        return this == GTC || this == GTT;
+    }
+}
@@ -6,13 +6,18 @@ import java.util.Objects;
 /**
  * A Trade represents a completed execution between a buy order and a sell order.
  * Trades are immutable records -> more efficient than classes
+ *
+ * <p>{@code sequence} is the engine's execution sequence (1, 2, 3, ... in execution order).
+ * It is derived from the command log, so replay assigns the same numbers again; consumers
+ * can use it to deduplicate and to resume reading. 0 means "not assigned yet".
  */
 public record Trade(
         String buyOrderId,
         String sellOrderId,
         long price,
         long quantity,
-        Instant timestamp
+        Instant timestamp,
+        long sequence
 ) {
 
     public Trade {
@@ -21,5 +26,20 @@ public record Trade(
         price = TradeConstraints.requireValidPrice(price);
         quantity = TradeConstraints.requireValidQuantity(quantity);
         timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
+        sequence = TradeConstraints.requireValidSequence(sequence);
+    }
+
+    /**
+     * Creates a trade without an execution sequence.
+     */
+    public Trade(String buyOrderId, String sellOrderId, long price, long quantity, Instant timestamp) {
+        this(buyOrderId, sellOrderId, price, quantity, timestamp, 0L);
+    }
+
+    /**
+     * @return a copy of this trade carrying the given execution sequence
+     */
+    public Trade withSequence(long sequence) {
+        return new Trade(buyOrderId, sellOrderId, price, quantity, timestamp, sequence);
     }
 }
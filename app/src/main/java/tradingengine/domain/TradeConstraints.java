@@ -30,4 +30,12 @@ public final class TradeConstraints {
         }
         return quantity;
     }
+
+    public static long requireValidSequence(long sequence) {
+        // 0 = unassigned; assigned sequences start at 1.
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Trade sequence must not be negative");
+        }
+        return sequence;
+    }
 }
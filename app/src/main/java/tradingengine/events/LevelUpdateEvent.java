@@ -0,0 +1,30 @@
+package tradingengine.events;
+
+import tradingengine.domain.OrderSide;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Emitted once per price level a command changed, carrying the level's quantity after the
+ * command, in place of one {@link OrderBookEvent} per order added or filled away there.
+ *
+ * @param side side of the level
+ * @param price level price
+ * @param quantity resting quantity left at the level; 0 if the level is gone
+ */
+public record LevelUpdateEvent(
+        OrderSide side,
+        long price,
+        long quantity,
+        Instant timestamp
+) implements EngineEvent {
+
+    public LevelUpdateEvent {
+        Objects.requireNonNull(side, "side must not be null");
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity must not be negative");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package tradingengine.events;
+
+import tradingengine.domain.OrderSide;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Emitted once per mass cancel, in place of one {@link OrderBookEvent} per cancelled order.
+ *
+ * @param side side that was cleared, or {@code null} for both
+ * @param minPrice lowest price cleared, inclusive
+ * @param maxPrice highest price cleared, inclusive
+ * @param orders number of orders cancelled
+ * @param quantity open quantity cancelled
+ */
+public record MassCancelEvent(
+        OrderSide side,
+        long minPrice,
+        long maxPrice,
+        int orders,
+        long quantity,
+        Instant timestamp
+) implements EngineEvent {
+
+    public MassCancelEvent {
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        if (orders < 0 || quantity < 0) {
+            throw new IllegalArgumentException("orders and quantity must not be negative");
+        }
+    }
+}
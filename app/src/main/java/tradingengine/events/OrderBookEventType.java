@@ -6,5 +6,7 @@ package tradingengine.events;
 public enum OrderBookEventType {
     ADD,
     REMOVE,
-    CANCEL
+    CANCEL,
+    AMEND,
+    EXPIRE
 }
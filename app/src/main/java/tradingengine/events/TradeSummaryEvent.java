@@ -0,0 +1,39 @@
+package tradingengine.events;
+
+import tradingengine.domain.OrderSide;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Emitted once per price level an order swept, in place of one {@link TradeExecutedEvent}
+ * per fill at that level.
+ *
+ * @param takerSide side of the incoming order
+ * @param price level price every fill traded at
+ * @param quantity total quantity traded at the level
+ * @param trades number of fills
+ * @param firstSequence execution sequence of the first fill
+ * @param lastSequence execution sequence of the last fill; the fills are numbered contiguously
+ */
+public record TradeSummaryEvent(
+        OrderSide takerSide,
+        long price,
+        long quantity,
+        int trades,
+        long firstSequence,
+        long lastSequence,
+        Instant timestamp
+) implements EngineEvent {
+
+    public TradeSummaryEvent {
+        Objects.requireNonNull(takerSide, "takerSide must not be null");
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        if (trades <= 0 || quantity <= 0) {
+            throw new IllegalArgumentException("a summary needs at least one fill");
+        }
+        if (lastSequence - firstSequence != trades - 1) {
+            throw new IllegalArgumentException("fills must be numbered contiguously");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package tradingengine.matchingengine;
+
+import tradingengine.book.OrderBook;
+import tradingengine.book.OrderBookSide;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+import tradingengine.domain.TimeInForce;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Price-time matching loop over an {@link OrderBook}, reporting fills to a {@link FillSink}.
+ *
+ * <p>This is the core {@link MatchingEngine} builds on; on its own it does no journaling,
+ * persistence or event publication. In steady state (levels already exist, the sink
+ * records primitives) matching allocates nothing: the loop works on the live orders and
+ * queue nodes, and reports fills through the sink instead of building result objects.
+ *
+ * <p>Execution rules:
+ * <ul>
+ *   <li>Fill quantity = min(remaining quantities)</li>
+ *   <li>Trade price = resting order's price</li>
+ * </ul>
+ *
+ * <p>Not thread-safe; it shares the book's single-writer discipline.
+ */
+public final class BookMatcher {
+
+    private final OrderBook book;
+
+    public BookMatcher(OrderBook book) {
+        this.book = Objects.requireNonNull(book, "book must not be null");
+    }
+
+    /**
+     * Matches an order and rests any remainder, honouring its type and time in force. These
+     * are the engine's only time-in-force rules:
+     * <ul>
+     *   <li>a FOK order that cannot fill completely is cancelled without trading</li>
+     *   <li>a market, IOC or FOK remainder is cancelled instead of resting</li>
+     *   <li>so is the remainder of a GTT order whose expiry is not after {@code now}</li>
+     * </ul>
+     *
+     * @param incoming the incoming order
+     * @param now current engine time, against which a GTT expiry is judged
+     * @param sink receives each fill
+     * @return total quantity filled; the order is resting afterwards if it is still active
+     */
+    public long submit(Order incoming, Instant now, FillSink sink) {
+        Objects.requireNonNull(now, "now must not be null");
+        if (incoming.getTimeInForce() == TimeInForce.FOK && !canFillCompletely(incoming)) {
+            incoming.cancel();
+            return 0;
+        }
+        long filled = match(incoming, sink);
+        if (incoming.isActive()) {
+            if (incoming.canRest() && (incoming.getExpireAt() == null || incoming.getExpireAt().isAfter(now))) {
+                book.addOrder(incoming);
+            } else {
+                incoming.cancel();
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Checks, from the opposite side's level totals, whether an order would fill completely.
+     *
+     * @param incoming the incoming order
+     * @return {@code true} if enough crossing quantity rests
+     */
+    public boolean canFillCompletely(Order incoming) {
+        Objects.requireNonNull(incoming, "incoming order must not be null");
+        OrderBookSide opposite = incoming.getSide() == OrderSide.BUY ? book.sellSide() : book.buySide();
+        long needed = incoming.getRemainingQty();
+        return opposite.availableQty(incoming::canMatch, needed) >= needed;
+    }
+
+    /**
+     * Matches an order against the opposite side until it is filled or prices stop crossing.
+     * Any remainder is left to the caller.
+     *
+     * @param incoming the incoming order
+     * @param sink receives each fill
+     * @return total quantity filled
+     */
+    public long match(Order incoming, FillSink sink) {
+        Objects.requireNonNull(incoming, "incoming order must not be null");
+        Objects.requireNonNull(sink, "sink must not be null");
+
+        OrderSide restingSide = incoming.getSide() == OrderSide.BUY ? OrderSide.SELL : OrderSide.BUY;
+        OrderBookSide opposite = incoming.getSide() == OrderSide.BUY ? book.sellSide() : book.buySide();
+        long filled = 0;
+
+        // Loop terminates when no match is possible (no resting order or prices do not cross).
+        while (incoming.isActive()) {
+            Order resting = opposite.peekBestOrderOrNull();
+            if (resting == null || !incoming.canMatch(resting.getPrice())) {
+                break;
+            }
+
+            long fillQty = Math.min(incoming.getRemainingQty(), resting.getRemainingQty());
+            if (fillQty <= 0) {
+                throw new IllegalStateException("Cannot execute trade with zero quantity");
+            }
+            incoming.execute(fillQty);
+            opposite.fillBestOrder(fillQty); // keeps the level's running totals current
+            filled += fillQty;
+            sink.onFill(incoming, resting, resting.getPrice(), fillQty);
+
+            Order removed = book.removeBestOrderIfInactive(restingSide);
+            if (removed != null) {
+                sink.onRestingRemoved(removed);
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * Cancels a resting order by id.
+     *
+     * @param orderId the order id
+     * @return the cancelled order, or {@code null} if it was not resting
+     */
+    public Order cancel(String orderId) {
+        return book.cancelOrderOrNull(orderId);
+    }
+}
@@ -0,0 +1,15 @@
+package tradingengine.matchingengine;
+
+import tradingengine.domain.Trade;
+
+import java.util.List;
+
+/**
+ * Outcome of one command in a batch.
+ *
+ * @param command  the command as submitted
+ * @param accepted {@code true} for submits; for cancels, whether the order was found and cancelled
+ * @param trades   trades produced by the command, in execution order (empty for cancels)
+ */
+public record CommandResult(EngineCommand command, boolean accepted, List<Trade> trades) {
+}
@@ -0,0 +1,76 @@
+package tradingengine.matchingengine;
+
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderConstraints;
+import tradingengine.domain.OrderSide;
+
+import java.util.Objects;
+
+/**
+ * A command accepted by {@link MatchingEngine#submitBatch}.
+ */
+public sealed interface EngineCommand permits EngineCommand.Submit, EngineCommand.Cancel, EngineCommand.Amend,
+        EngineCommand.MassCancel {
+
+    /**
+     * Submit a new order.
+     */
+    record Submit(Order order) implements EngineCommand {
+        public Submit {
+            Objects.requireNonNull(order, "order must not be null");
+        }
+    }
+
+    /**
+     * Cancel a resting order by id.
+     */
+    record Cancel(String orderId) implements EngineCommand {
+        public Cancel {
+            Objects.requireNonNull(orderId, "orderId must not be null");
+        }
+    }
+
+    /**
+     * Change a resting order's price and/or open quantity.
+     * A quantity-down at the same price keeps time priority; anything else re-queues.
+     */
+    record Amend(String orderId, long price, long quantity) implements EngineCommand {
+        public Amend {
+            Objects.requireNonNull(orderId, "orderId must not be null");
+            OrderConstraints.requireValidPrice(price);
+            OrderConstraints.requireValidQuantity(quantity);
+        }
+    }
+
+    /**
+     * Cancel every resting order on a side (or both) whose price is within an inclusive range,
+     * optionally only one client's.
+     *
+     * @param side side to clear, or {@code null} for both
+     * @param minPrice lowest price to clear
+     * @param maxPrice highest price to clear
+     * @param owner client whose orders to clear, or {@code null} for everyone's
+     */
+    record MassCancel(OrderSide side, long minPrice, long maxPrice, String owner) implements EngineCommand {
+        public MassCancel {
+            if (minPrice < 0 || maxPrice < minPrice) {
+                throw new IllegalArgumentException("price range must satisfy 0 <= minPrice <= maxPrice");
+            }
+            if (owner != null && owner.isBlank()) {
+                throw new IllegalArgumentException("owner must not be blank");
+            }
+        }
+
+        public MassCancel(OrderSide side, long minPrice, long maxPrice) {
+            this(side, minPrice, maxPrice, null);
+        }
+
+        /**
+         * @param side side to clear, or {@code null} for both
+         * @return a mass cancel covering every price
+         */
+        public static MassCancel all(OrderSide side) {
+            return new MassCancel(side, 0, Long.MAX_VALUE);
+        }
+    }
+}
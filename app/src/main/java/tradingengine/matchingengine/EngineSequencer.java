@@ -0,0 +1,216 @@
+package tradingengine.matchingengine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Single-writer front door for a {@link MatchingEngine}.
+ *
+ * <p>The order book (price levels of intrusive order queues, plus its id and owner indexes) is
+ * not thread-safe, so every command that touches it is funnelled through a bounded ring buffer into one
+ * "matching-engine" thread that owns the engine. Callers get a future that completes when
+ * the command has been applied, which gives:
+ * <ul>
+ *   <li>one deterministic command order (the order commands enter the buffer)</li>
+ *   <li>no data races on book state</li>
+ *   <li>back-pressure instead of unbounded queuing: a full buffer rejects immediately</li>
+ * </ul>
+ *
+ * <p>The matching thread drains the buffer in batches, so a burst of requests pays the
+ * queue lock once per batch rather than once per command.
+ */
+public final class EngineSequencer implements AutoCloseable {
+
+    /** Default ring buffer size. */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int MAX_DRAIN = 256;
+    private static final long IDLE_POLL_MILLIS = 100L;
+
+    private final MatchingEngine engine;
+    private final BlockingQueue<Command<?>> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private record Command<T>(Function<MatchingEngine, T> action, CompletableFuture<T> result, AtomicBoolean claimed) {
+
+        Command(Function<MatchingEngine, T> action, CompletableFuture<T> result) {
+            this(action, result, new AtomicBoolean());
+        }
+
+        /**
+         * Claims the command for exactly one party: the matching thread to run it, or a timed-out
+         * caller to withdraw it.
+         *
+         * @return {@code true} if this call won the claim
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void run(MatchingEngine engine) {
+            // Withdrawn by a timed-out caller, or its future was cancelled: never apply it.
+            if (result.isDone() || !claim()) {
+                return;
+            }
+            try {
+                result.complete(action.apply(engine));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * Creates a sequencer and starts its matching thread.
+     *
+     * @param engine the engine owned by the matching thread from now on
+     * @param capacity maximum number of commands waiting to be applied
+     */
+    public EngineSequencer(MatchingEngine engine, int capacity) {
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::runLoop, "matching-engine");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public EngineSequencer(MatchingEngine engine) {
+        this(engine, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Enqueues a command for the matching thread.
+     *
+     * @param action work to run against the engine; must not block
+     * @return a future completed with the action's result (or its exception); it fails with
+     *         {@link RejectedExecutionException} if the buffer is full or the sequencer is closed
+     */
+    public <T> CompletableFuture<T> submit(Function<MatchingEngine, T> action) {
+        return enqueue(action).result();
+    }
+
+    private <T> Command<T> enqueue(Function<MatchingEngine, T> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        Command<T> command = new Command<>(action, new CompletableFuture<>());
+        if (Thread.currentThread() == thread) {
+            // Re-entrant call from a command: run inline to avoid deadlocking on our own queue.
+            command.run(engine);
+            return command;
+        }
+        if (!running) {
+            command.result().completeExceptionally(new RejectedExecutionException("sequencer is closed"));
+        } else if (!queue.offer(command)) {
+            command.result().completeExceptionally(new RejectedExecutionException("sequencer queue is full"));
+        }
+        return command;
+    }
+
+    /**
+     * Enqueues a command and waits for its result.
+     *
+     * @param action work to run against the engine
+     * @param timeout how long to wait for the command to be applied
+     * @return the action's result
+     * @throws RejectedExecutionException if the buffer is full or the sequencer is closed
+     * @throws TimeoutException if the command was not applied in time; it has then been
+     *         withdrawn and will never run, so the caller may safely retry it
+     * @throws RuntimeException the action's own exception, unwrapped
+     */
+    public <T> T call(Function<MatchingEngine, T> action, Duration timeout)
+            throws TimeoutException, InterruptedException {
+        Command<T> command = enqueue(action);
+        CompletableFuture<T> future = command.result();
+        try {
+            try {
+                return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (command.claim()) {
+                    future.cancel(false);
+                    throw e;
+                }
+                // The matching thread already started it: the command is applied, so wait for
+                // its real result rather than report a timeout. Commands never block.
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @return number of commands waiting to be applied
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting commands, applies the ones already queued, and stops the matching thread.
+     */
+    @Override
+    public void close() {
+        // No interrupt: it would close the WAL's FileChannel mid-write. The loop polls instead.
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A submit racing with close may still have slipped in; don't leave it hanging.
+        List<Command<?>> stragglers = new ArrayList<>();
+        queue.drainTo(stragglers);
+        for (Command<?> command : stragglers) {
+            command.result().completeExceptionally(new RejectedExecutionException("sequencer is closed"));
+        }
+    }
+
+    private void runLoop() {
+        List<Command<?>> batch = new ArrayList<>(MAX_DRAIN);
+        while (running) {
+            Command<?> first;
+            try {
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_DRAIN - 1);
+            runBatch(batch);
+        }
+        // Apply what was accepted before close so no caller waits forever.
+        queue.drainTo(batch);
+        runBatch(batch);
+    }
+
+    private void runBatch(List<Command<?>> batch) {
+        for (Command<?> command : batch) {
+            command.run(engine);
+        }
+        batch.clear();
+    }
+}
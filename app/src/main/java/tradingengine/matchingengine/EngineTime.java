@@ -0,0 +1,69 @@
+package tradingengine.matchingengine;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The engine's notion of "now", as epoch nanoseconds, fixed for the duration of a command.
+ *
+ * <p>Live commands call {@link #advance()} once: the clock is read a single time and every
+ * event and journal entry of the command shares that timestamp, instead of reading the clock
+ * (and allocating an {@link Instant}) per event. Time never goes backwards within a run: a
+ * clock that steps back is held at the last value. Replay calls {@link #replayAt(Instant)}
+ * with each record's journaled time, so a replayed command sees the time it originally had.
+ * Not thread-safe; owned by the thread applying commands.
+ */
+public final class EngineTime {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Clock clock;
+    private long nanos = Long.MIN_VALUE;
+    private Instant instant; // the same time as an Instant
+
+    public EngineTime(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    }
+
+    /**
+     * Starts a live command: reads the clock, never moving backwards.
+     *
+     * @return the command's time in epoch nanoseconds
+     */
+    public long advance() {
+        Instant read = clock.instant();
+        long readNanos = toNanos(read);
+        // A clock that stepped back or stood still keeps the previous time and its Instant.
+        if (readNanos > nanos) {
+            nanos = readNanos;
+            instant = read;
+        }
+        return nanos;
+    }
+
+    /**
+     * Starts a replayed command at its journaled time. Later live commands never go below it.
+     *
+     * @param timestamp the record's timestamp
+     */
+    public void replayAt(Instant timestamp) {
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        nanos = toNanos(timestamp);
+        instant = timestamp;
+    }
+
+    /**
+     * @return the current command's time; the same instance for the whole command
+     */
+    public Instant instant() {
+        if (nanos == Long.MIN_VALUE) {
+            advance();
+        }
+        return instant;
+    }
+
+    static long toNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+    }
+}
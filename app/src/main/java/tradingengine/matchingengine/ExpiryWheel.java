@@ -0,0 +1,238 @@
+package tradingengine.matchingengine;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of order expiries, keyed by engine id and driven by the times it
+ * is given (never the wall clock), so the same calls always expire the same orders.
+ *
+ * <p>Four wheels of 256 slots, the bottom one a millisecond per slot, cover about 49 days;
+ * later deadlines wait in an overflow list that is re-placed each time the top wheel wraps.
+ * Scheduling is O(1). Advancing skips straight past wheels with nothing on them, so it costs
+ * O(1) per elapsed slot of the lowest non-empty wheel and nothing while the wheel is empty;
+ * each entry is moved down at most once per wheel before it fires.
+ *
+ * <p>Entries are never removed early: a cancelled or filled order's entry simply fires later
+ * and the listener ignores it. Entries live in primitive arrays, so millions of pending
+ * expiries cost 16 bytes each and no per-entry object. Not thread-safe.
+ */
+public final class ExpiryWheel {
+
+    /**
+     * Receives entries whose deadline has been reached. It must not schedule new entries.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onExpired(long id, long deadline);
+    }
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final Slot[][] wheels = new Slot[LEVELS][SLOTS];
+    private final int[] levelSizes = new int[LEVELS];
+    private final Slot overflow = new Slot();
+    private final Slot due = new Slot(); // deadline at or before the current tick
+    private long currentTick = NOT_STARTED;
+
+    /**
+     * Growable parallel arrays of (id, deadline) pairs.
+     */
+    private static final class Slot {
+        private static final int INITIAL_CAPACITY = 4;
+
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] deadlines = new long[INITIAL_CAPACITY];
+        int size;
+
+        void add(long id, long deadline) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            ids[size] = id;
+            deadlines[size] = deadline;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+            if (ids.length > 1024) {
+                // Don't pin a burst's worth of memory in a slot that is now empty.
+                ids = new long[INITIAL_CAPACITY];
+                deadlines = new long[INITIAL_CAPACITY];
+            }
+        }
+    }
+
+    /**
+     * Schedules an expiry.
+     *
+     * @param id entry id (the order's engine id)
+     * @param deadline time at which the entry fires, in epoch milliseconds
+     * @param now current time in epoch milliseconds; starts the wheel on first use
+     */
+    public void schedule(long id, long deadline, long now) {
+        if (currentTick == NOT_STARTED) {
+            currentTick = now;
+        }
+        place(id, deadline);
+    }
+
+    /**
+     * Moves the wheel to {@code now} and reports every entry whose deadline is at or before it.
+     * Time never moves backwards: an earlier {@code now} only reports overdue entries.
+     *
+     * @param now current time in epoch milliseconds
+     * @param listener receives each expired entry
+     */
+    public void advance(long now, Listener listener) {
+        if (currentTick == NOT_STARTED) {
+            currentTick = now;
+        }
+        while (currentTick < now) {
+            if (wheelSize() == 0) {
+                currentTick = now;
+                break;
+            }
+            int lowest = 0;
+            while (lowest < LEVELS && levelSizes[lowest] == 0) {
+                lowest++;
+            }
+            if (lowest > 0) {
+                // Nothing moves before the lowest non-empty wheel's next slot boundary: jump to
+                // just before it.
+                int bits = SLOT_BITS * lowest;
+                long nextBoundary = ((currentTick >> bits) + 1) << bits;
+                if (nextBoundary > now) {
+                    currentTick = now;
+                    break;
+                }
+                currentTick = nextBoundary - 1;
+            }
+            currentTick++;
+            cascade();
+            Slot slot = wheels[0][(int) (currentTick & MASK)];
+            if (slot != null && slot.size > 0) {
+                levelSizes[0] -= slot.size;
+                fire(slot, listener);
+            }
+        }
+        drainDue(now, listener);
+    }
+
+    /**
+     * @return pending entries, including ones whose order has already gone
+     */
+    public int size() {
+        return wheelSize() + due.size;
+    }
+
+    private int wheelSize() {
+        int size = overflow.size;
+        for (int level = 0; level < LEVELS; level++) {
+            size += levelSizes[level];
+        }
+        return size;
+    }
+
+    private void place(long id, long deadline) {
+        long delta = deadline - currentTick;
+        if (delta <= 0) {
+            due.add(id, deadline);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if (delta < 1L << (shift + SLOT_BITS)) {
+                int index = (int) ((deadline >> shift) & MASK);
+                Slot slot = wheels[level][index];
+                if (slot == null) {
+                    slot = new Slot();
+                    wheels[level][index] = slot;
+                }
+                slot.add(id, deadline);
+                levelSizes[level]++;
+                return;
+            }
+        }
+        overflow.add(id, deadline);
+    }
+
+    /**
+     * On a wheel boundary, re-places the upper-wheel slot that has just come due; its entries
+     * land on lower wheels (or in {@code due}).
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && ((currentTick >> (SLOT_BITS * (level - 1))) & MASK) == 0) {
+            level++;
+        }
+        // Levels 1..level-1 are on a boundary; cascade the highest first.
+        if (level == LEVELS && ((currentTick >> (SLOT_BITS * (LEVELS - 1))) & MASK) == 0) {
+            replace(overflow, -1);
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            Slot slot = wheels[l][(int) ((currentTick >> (SLOT_BITS * l)) & MASK)];
+            if (slot != null && slot.size > 0) {
+                replace(slot, l);
+            }
+        }
+    }
+
+    private void replace(Slot slot, int level) {
+        int size = slot.size;
+        if (size == 0) {
+            return;
+        }
+        if (level < 0) {
+            // Overflow entries may land back in the overflow list, so detach it first.
+            long[] ids = slot.ids;
+            long[] deadlines = slot.deadlines;
+            slot.ids = new long[Slot.INITIAL_CAPACITY];
+            slot.deadlines = new long[Slot.INITIAL_CAPACITY];
+            slot.size = 0;
+            for (int i = 0; i < size; i++) {
+                place(ids[i], deadlines[i]);
+            }
+            return;
+        }
+        // A wheel slot's entries always move to a lower wheel, never back into this slot.
+        levelSizes[level] -= size;
+        for (int i = 0; i < size; i++) {
+            place(slot.ids[i], slot.deadlines[i]);
+        }
+        slot.clear();
+    }
+
+    private void fire(Slot slot, Listener listener) {
+        for (int i = 0; i < slot.size; i++) {
+            listener.onExpired(slot.ids[i], slot.deadlines[i]);
+        }
+        slot.clear();
+    }
+
+    private void drainDue(long now, Listener listener) {
+        int kept = 0;
+        for (int i = 0; i < due.size; i++) {
+            long id = due.ids[i];
+            long deadline = due.deadlines[i];
+            if (deadline <= now) {
+                listener.onExpired(id, deadline);
+            } else {
+                // Only overdue relative to a later tick than this call's time.
+                due.ids[kept] = id;
+                due.deadlines[kept] = deadline;
+                kept++;
+            }
+        }
+        if (kept == 0) {
+            due.clear();
+        } else {
+            due.size = kept;
+        }
+    }
+}
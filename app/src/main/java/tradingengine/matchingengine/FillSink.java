@@ -0,0 +1,31 @@
+package tradingengine.matchingengine;
+
+import tradingengine.domain.Order;
+
+/**
+ * Receives executions from {@link BookMatcher} as primitive callbacks.
+ *
+ * <p>Nothing is allocated per fill: the sink sees the two live orders plus the fill price and
+ * quantity, and decides itself what (if anything) to record. A sink is typically one long-lived
+ * object reused for every command.
+ */
+public interface FillSink {
+
+    /**
+     * Called once per execution, after both orders have been filled.
+     *
+     * @param incoming the aggressive order
+     * @param resting the resting order it traded with
+     * @param price execution price (the resting order's price)
+     * @param quantity executed quantity
+     */
+    void onFill(Order incoming, Order resting, long price, long quantity);
+
+    /**
+     * Called when a fully filled resting order has been removed from the book.
+     *
+     * @param resting the removed order
+     */
+    default void onRestingRemoved(Order resting) {
+    }
+}
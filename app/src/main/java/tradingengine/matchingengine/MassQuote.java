@@ -0,0 +1,98 @@
+package tradingengine.matchingengine;
+
+import tradingengine.domain.OrderConstraints;
+import tradingengine.domain.OrderSide;
+import tradingengine.domain.Trade;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Replaces one client's two-sided quote ladder in a single command.
+ *
+ * <p>After the command the client rests exactly one order per listed level, at the listed
+ * quantity; any other resting order of the client on that side is cancelled. Levels that did
+ * not change are left untouched and keep their queue position.
+ *
+ * @param owner client whose ladder this is
+ * @param bids bid levels, at most one per price
+ * @param asks ask levels, at most one per price
+ */
+public record MassQuote(String owner, List<Level> bids, List<Level> asks) {
+
+    public MassQuote {
+        Objects.requireNonNull(owner, "owner must not be null");
+        if (owner.isBlank()) {
+            throw new IllegalArgumentException("owner must not be blank");
+        }
+        bids = List.copyOf(Objects.requireNonNull(bids, "bids must not be null"));
+        asks = List.copyOf(Objects.requireNonNull(asks, "asks must not be null"));
+        requireDistinctPrices(bids);
+        requireDistinctPrices(asks);
+        long bestBid = bids.stream().mapToLong(Level::price).max().orElse(Long.MIN_VALUE);
+        long bestAsk = asks.stream().mapToLong(Level::price).min().orElse(Long.MAX_VALUE);
+        if (bestBid >= bestAsk) {
+            throw new IllegalArgumentException("quote bids must be below quote asks");
+        }
+    }
+
+    private static void requireDistinctPrices(List<Level> levels) {
+        Set<Long> prices = new HashSet<>();
+        for (Level level : levels) {
+            if (!prices.add(level.price())) {
+                throw new IllegalArgumentException("duplicate quote price " + level.price());
+            }
+        }
+    }
+
+    /**
+     * @return the levels for one side
+     */
+    public List<Level> levels(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+
+    /**
+     * One quoted price level.
+     */
+    public record Level(long price, long quantity) {
+        public Level {
+            OrderConstraints.requireValidPrice(price);
+            OrderConstraints.requireValidQuantity(quantity);
+        }
+    }
+
+    /**
+     * What the command did at one price.
+     */
+    public enum Action {
+        /** No resting order here before; a new one was placed. */
+        NEW,
+        /** The resting order already matched the quote and was not touched. */
+        UNCHANGED,
+        /** Lower quantity at the same price: reduced in place, priority kept. */
+        REDUCED,
+        /** Higher quantity: re-queued at the back of the level under the same id. */
+        REPLACED,
+        /** No longer quoted: cancelled. */
+        CANCELLED
+    }
+
+    /**
+     * Acknowledgement for one level.
+     *
+     * @param orderId the client's order at this level
+     * @param quantity quantity requested (for a cancel, the quantity that was open)
+     */
+    public record Ack(OrderSide side, long price, long quantity, Action action, String orderId) {}
+
+    /**
+     * Outcome of a mass quote.
+     *
+     * @param acks cancellations first, then one ack per quoted level (bids, then asks)
+     * @param trades trades from new levels that crossed other clients' orders
+     */
+    public record Result(List<Ack> acks, List<Trade> trades) {}
+}
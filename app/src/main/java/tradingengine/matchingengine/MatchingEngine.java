@@ -1,15 +1,21 @@
 package tradingengine.matchingengine;
 
+import tradingengine.book.DepthSnapshot;
 import tradingengine.book.OrderBook;
 import tradingengine.book.OrderBookSide;
-import tradingengine.book.OrderLocator;
+import tradingengine.book.TopOfBook;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
+import tradingengine.domain.OrderType;
+import tradingengine.domain.TimeInForce;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.LevelUpdateEvent;
+import tradingengine.events.MassCancelEvent;
 import tradingengine.events.OrderBookEvent;
 import tradingengine.events.OrderBookEventType;
 import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
 import tradingengine.persistence.CommandLog;
 import tradingengine.persistence.FileTradeStore;
 
@@ -17,9 +23,16 @@ import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Deterministic matching engine implementing price–time priority.
@@ -37,6 +50,7 @@ import java.util.Optional;
  * This class orchestrates matching but delegates:
  * <ul>
  *   <li>Order storage to {@link OrderBook}</li>
+ *   <li>The price-time matching loop to {@link BookMatcher}</li>
  *   <li>Order state transitions to {@link Order}</li>
  *   <li>Event emission to {@link tradingengine.events.EventDispatcher}</li>
  * </ul>
@@ -53,17 +67,52 @@ import java.util.Optional;
 public class MatchingEngine {
 
     private final OrderBook book;
-    private final Clock clock;
+    private final BookMatcher matcher;
+    private final TradeRecorder tradeRecorder = new TradeRecorder();
+    private final EngineTime time;
     private final EventDispatcher dispatcher;
     private final FileTradeStore tradeStore;
     private final CommandLog commandLog;
     private boolean replayMode = false;
 
+    // When set, matching publishes per-level summaries at the end of each command instead of
+    // an event per fill and per order added or filled away; levels touched so far are kept here.
+    private boolean aggregatedEvents = false;
+    private final Set<Level> touchedLevels = new LinkedHashSet<>();
+
+    private record Level(OrderSide side, long price) {}
+
+    // Latest top of book for readers on any thread. Written only by the thread applying
+    // commands, after each command, so readers never see a half-applied book.
+    private volatile TopOfBook topOfBook = TopOfBook.EMPTY;
+
+    // Book version as of the last applied command, and the newest depth snapshot built.
+    // The snapshot is rebuilt lazily, at most once per version, on the engine's thread.
+    private volatile long publishedBookVersion;
+    private volatile DepthSnapshot depthSnapshot = DepthSnapshot.EMPTY;
+
+    // Sequence of the last execution. Starts at 0 and advances once per trade, so replaying
+    // the command log from the beginning assigns every trade the same sequence again.
+    private long tradeSequence = 0L;
+
+    // Order id -> positions of its trades in the trade store, in execution order.
+    // Rebuilt during replay because replay goes through recordTrade like live traffic.
+    private final Map<String, TradePositions> tradePositionsByOrderId = new ConcurrentHashMap<>();
+
+    // Pending good-till-time deadlines by engine id. Only advanced by expireOrders, whose runs
+    // that expire anything are journaled, so replay expires the same orders at the same point.
+    private final ExpiryWheel expiries = new ExpiryWheel();
+
+    // Stop orders waiting for the last trade price to reach them, and that price (0 before the
+    // first trade). Both are rebuilt by replay, so stops activate at the same trades again.
+    private final StopTriggers stops = new StopTriggers();
+    private long lastTradePrice = 0L;
+
     /**
      * Creates a matching engine with an existing order book, clock, dispatcher, and trade store.
      *
      * @param book the order book instance
-     * @param clock the time source for trade timestamps
+     * @param clock the time source behind the engine time of live commands
      * @param dispatcher the event dispatcher
      * @param tradeStore the trade persistence store
      * @param commandLog append-only command log for crash recovery
@@ -76,7 +125,9 @@ public class MatchingEngine {
             CommandLog commandLog
     ) {
         this.book = Objects.requireNonNull(book, "order book must not be null");
-        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        this.matcher = new BookMatcher(book);
+        this.publishedBookVersion = book.version();
+        this.time = new EngineTime(Objects.requireNonNull(clock, "clock must not be null"));
         this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher must not be null");
         this.tradeStore = Objects.requireNonNull(tradeStore, "tradeStore must not be null");
         this.commandLog = Objects.requireNonNull(commandLog, "commandLog must not be null");
@@ -98,11 +149,119 @@ public class MatchingEngine {
         );
     }
 
+    /**
+     * Re-applies one journaled command. Only valid in replay mode.
+     *
+     * @param record a record read from the command log
+     */
+    public void replay(CommandLog.Record record) {
+        Objects.requireNonNull(record, "record must not be null");
+        if (!replayMode) {
+            throw new IllegalStateException("replay requires replay mode");
+        }
+        if (record.timestamp != null) {
+            time.replayAt(record.timestamp);
+        }
+        switch (record.type) {
+            case ORDER -> {
+                Order order = new Order(
+                        record.orderId,
+                        OrderSide.valueOf(record.side),
+                        record.price,
+                        record.quantity,
+                        record.timestamp
+                );
+                if (record.owner != null) {
+                    order.assignOwner(record.owner);
+                }
+                if (record.stopPrice != 0) {
+                    order.assignStopPrice(record.stopPrice);
+                }
+                if (record.orderType != null && OrderType.valueOf(record.orderType) == OrderType.MARKET) {
+                    order.assignMarket();
+                }
+                if (record.expireAt != null) {
+                    order.assignGoodTillTime(record.expireAt);
+                } else if (record.timeInForce != null) {
+                    order.assignTimeInForce(TimeInForce.valueOf(record.timeInForce));
+                }
+                submit(order);
+            }
+            case CANCEL -> cancel(record.cancelOrderId);
+            case AMEND -> amend(record.orderId, record.price, record.quantity, record.timestamp);
+            case MASS_CANCEL -> massCancel(new EngineCommand.MassCancel(
+                    record.side == null ? null : OrderSide.valueOf(record.side),
+                    record.minPrice,
+                    record.maxPrice,
+                    record.owner
+            ));
+            case MASS_QUOTE -> massQuote(new MassQuote(
+                    record.owner,
+                    toLevels(record.bids),
+                    toLevels(record.asks)
+            ), record.timestamp);
+            case EXPIRE -> expireOrders(record.timestamp);
+        }
+    }
+
+    private static CommandLog.Record orderRecord(Order order) {
+        CommandLog.Record record = CommandLog.Record.order(
+                order.getId(),
+                order.getSide().name(),
+                order.getPrice(),
+                order.getRemainingQty(),
+                order.getTimestamp(),
+                order.getOwner()
+        );
+        if (order.getTimeInForce() != TimeInForce.GTC) {
+            record.timeInForce = order.getTimeInForce().name();
+        }
+        record.expireAt = order.getExpireAt();
+        record.stopPrice = order.getStopPrice();
+        if (order.getType() != OrderType.LIMIT) {
+            record.orderType = order.getType().name();
+        }
+        return record;
+    }
+
+    private static List<MassQuote.Level> toLevels(List<long[]> pairs) {
+        List<MassQuote.Level> levels = new ArrayList<>(pairs == null ? 0 : pairs.size());
+        if (pairs != null) {
+            for (long[] pair : pairs) {
+                levels.add(new MassQuote.Level(pair[0], pair[1]));
+            }
+        }
+        return levels;
+    }
+
+    private static List<long[]> toPairs(List<MassQuote.Level> levels) {
+        List<long[]> pairs = new ArrayList<>(levels.size());
+        for (MassQuote.Level level : levels) {
+            pairs.add(new long[]{level.price(), level.quantity()});
+        }
+        return pairs;
+    }
+
     /**
      * Enables replay mode to suppress live event emission and command-log writes.
      */
     public void setReplayMode(boolean replayMode) {
         this.replayMode = replayMode;
+        if (!replayMode) {
+            // Replay skips per-command publication; publish the recovered state once.
+            publishReadViews();
+        }
+    }
+
+    /**
+     * Switches matching events to one aggregate per price level per command: for each run of
+     * fills at one price a {@link TradeSummaryEvent} replaces the {@link TradeExecutedEvent}s,
+     * and one {@link LevelUpdateEvent} per level the matching changed replaces its ADD and
+     * REMOVE {@link OrderBookEvent}s. Cancels, amends and expiries still publish their own
+     * book events. Off by default.
+     */
+    public void setAggregatedEvents(boolean aggregatedEvents) {
+        this.aggregatedEvents = aggregatedEvents;
     }
 
     /**
@@ -116,163 +275,744 @@ public class MatchingEngine {
      *   <li>Add remaining quantity to the order book if unfilled</li>
      * </ol>
      *
-     * @param incoming the incoming order
+     * @param incoming the incoming order; a live submit replaces its timestamp with the engine time
      * @return list of trades generated by this submission (possibly empty)
      */
     public List<Trade> submit(Order incoming) {
         // Validate input - incoming Order must not be null
         Objects.requireNonNull(incoming, "incoming order must not be null");
+        beginCommand();
+        // Before journaling: live orders take the engine time (replay keeps the journaled one),
+        // and engine-assigned orders get their id here, deterministically.
+        if (!replayMode) {
+            incoming.assignTimestamp(time.instant());
+        }
+        book.assignEngineId(incoming);
 
         if (!replayMode) {
-            commandLog.appendOrder(
-                    incoming.getId(),
-                    incoming.getSide().name(),
-                    incoming.getPrice(),
-                    incoming.getRemainingQty(),
-                    incoming.getTimestamp()
-            );
+            commandLog.appendBatch(List.of(orderRecord(incoming)));
         }
 
         // List to accumulate resulting trades
         List<Trade> trades = new ArrayList<>();
+        applySubmit(incoming, trades);
+        publishReadViews();
+        return trades;
+    }
+
+    /**
+     * Cancel an order by id, whether it rests in the book or is a stop waiting for its trigger.
+     *
+     * @param orderId the order id to cancel
+     * @return {@code true} if the order was found and cancelled
+     */
+    public boolean cancel(String orderId) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        beginCommand();
+        if (!applyCancel(orderId)) {
+            return false;
+        }
+        publishReadViews();
+        if (!replayMode) {
+            commandLog.appendCancel(orderId, time.instant());
+        }
+        return true;
+    }
+
+    /**
+     * Cancel every resting order matching a mass-cancel filter as one command: one journal
+     * record, one walk over the affected levels and one {@link MassCancelEvent}. Pending stops
+     * whose limit price matches the filter are cancelled too, so a client's kill switch also
+     * disarms its stops; they were never in the book, so the event does not count them.
+     *
+     * @param command side and price range to clear
+     * @return number of orders cancelled, stops included; nothing is journaled when it is 0
+     */
+    public int massCancel(EngineCommand.MassCancel command) {
+        Objects.requireNonNull(command, "command must not be null");
+        beginCommand();
+        int cancelled = applyMassCancel(command);
+        if (cancelled == 0) {
+            return 0;
+        }
+        publishReadViews();
+        if (!replayMode) {
+            commandLog.appendMassCancel(
+                    command.side() == null ? null : command.side().name(),
+                    command.minPrice(),
+                    command.maxPrice(),
+                    command.owner(),
+                    time.instant()
+            );
+        }
+        return cancelled;
+    }
+
+    /**
+     * Replace a client's quote ladder, timestamped now.
+     *
+     * @see #massQuote(MassQuote, Instant)
+     */
+    public MassQuote.Result massQuote(MassQuote quote) {
+        Objects.requireNonNull(quote, "quote must not be null");
+        beginCommand();
+        return massQuoteAt(quote, time.instant());
+    }
+
+    /**
+     * Atomically replace one client's bid and ask ladders: one journal record, one pass over
+     * the client's resting orders, and only the levels that changed are touched.
+     *
+     * <p>Stale levels on both sides are cancelled before anything new is placed, so the client's
+     * new levels never trade against its old ones. Per level, against the client's order there:
+     * <ul>
+     *   <li>same quantity: left alone, keeping its place</li>
+     *   <li>lower quantity: reduced in place, keeping its place</li>
+     *   <li>higher quantity: re-queued at the back of the level under the same id</li>
+     *   <li>no order yet: a new engine-assigned order is placed and may trade</li>
+     * </ul>
+     *
+     * @param quote the client's complete new ladder
+     * @param timestamp time of the quote; new orders carry it (replay passes the journaled one)
+     * @return one ack per cancelled or quoted level, and any trades
+     */
+    public MassQuote.Result massQuote(MassQuote quote, Instant timestamp) {
+        Objects.requireNonNull(quote, "quote must not be null");
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        beginCommand();
+        return massQuoteAt(quote, timestamp);
+    }
+
+    private MassQuote.Result massQuoteAt(MassQuote quote, Instant timestamp) {
+        if (!replayMode) {
+            commandLog.appendMassQuote(quote.owner(), toPairs(quote.bids()), toPairs(quote.asks()), timestamp);
+        }
+
+        // The client's oldest order at each quoted price is that level's current order; every
+        // other order of the client (unquoted price, or a second order at a price) is stale.
+        Set<Long> quotedBids = prices(quote.bids());
+        Set<Long> quotedAsks = prices(quote.asks());
+        Map<Long, Order> bidsByPrice = new HashMap<>();
+        Map<Long, Order> asksByPrice = new HashMap<>();
+        List<MassQuote.Ack> acks = new ArrayList<>();
+        for (Order order : book.ordersOf(quote.owner())) {
+            boolean buy = order.getSide() == OrderSide.BUY;
+            if ((buy ? quotedBids : quotedAsks).contains(order.getPrice())
+                    && (buy ? bidsByPrice : asksByPrice).putIfAbsent(order.getPrice(), order) == null) {
+                continue;
+            }
+            acks.add(new MassQuote.Ack(order.getSide(), order.getPrice(), order.getRemainingQty(),
+                    MassQuote.Action.CANCELLED, order.getId()));
+            book.cancelOrderOrNull(order.getEngineId());
+            publishBookEvent(order.getSide(), order.getPrice(), OrderBookEventType.CANCEL);
+        }
+
+        List<Trade> trades = new ArrayList<>();
+        for (OrderSide side : OrderSide.values()) {
+            Map<Long, Order> byPrice = side == OrderSide.BUY ? bidsByPrice : asksByPrice;
+            for (MassQuote.Level level : quote.levels(side)) {
+                acks.add(applyQuoteLevel(quote.owner(), side, level, byPrice.get(level.price()), timestamp, trades));
+            }
+        }
+        publishReadViews();
+        return new MassQuote.Result(acks, trades);
+    }
+
+    private static Set<Long> prices(List<MassQuote.Level> levels) {
+        Set<Long> prices = new HashSet<>();
+        for (MassQuote.Level level : levels) {
+            prices.add(level.price());
+        }
+        return prices;
+    }
+
+    /**
+     * Brings one quoted level in line with the client's order there, touching the book only
+     * if the quantity changed.
+     */
+    private MassQuote.Ack applyQuoteLevel(
+            String owner, OrderSide side, MassQuote.Level level, Order resting, Instant timestamp, List<Trade> trades) {
+        long price = level.price();
+        long quantity = level.quantity();
+        if (resting == null) {
+            Order order = Order.withEngineAssignedId(side, price, quantity, timestamp).assignOwner(owner);
+            book.assignEngineId(order);
+            applySubmit(order, trades);
+            return new MassQuote.Ack(side, price, quantity, MassQuote.Action.NEW, order.getId());
+        }
+        long remaining = resting.getRemainingQty();
+        if (quantity == remaining) {
+            return new MassQuote.Ack(side, price, quantity, MassQuote.Action.UNCHANGED, resting.getId());
+        }
+        if (quantity < remaining) {
+            book.reduceOrder(resting.getId(), quantity);
+            publishBookEvent(side, price, OrderBookEventType.AMEND);
+            return new MassQuote.Ack(side, price, quantity, MassQuote.Action.REDUCED, resting.getId());
+        }
+        book.cancelOrderOrNull(resting.getEngineId());
+        Order replacement = resting.requeued(price, quantity, timestamp);
+        publishBookEvent(side, price, OrderBookEventType.AMEND);
+        applySubmit(replacement, trades);
+        return new MassQuote.Ack(side, price, quantity, MassQuote.Action.REPLACED, resting.getId());
+    }
+
+    /**
+     * Amend a resting order's price and/or open quantity, timestamped now.
+     *
+     * @see #amend(String, long, long, Instant)
+     */
+    public CommandResult amend(String orderId, long newPrice, long newQuantity) {
+        EngineCommand.Amend command = new EngineCommand.Amend(orderId, newPrice, newQuantity);
+        beginCommand();
+        return amendAt(command, time.instant());
+    }
+
+    /**
+     * Amend a resting order in one journaled command instead of a cancel plus a new order.
+     *
+     * <p>Priority rules:
+     * <ul>
+     *   <li>Same price, lower quantity: reduced in place, keeping its time priority</li>
+     *   <li>Same price and quantity: accepted as a no-op, neither journaled nor published</li>
+     *   <li>Price change or higher quantity: re-queued at the back of the new level, under the
+     *       same order id; a new price that crosses the spread matches first</li>
+     * </ul>
+     *
+     * @param orderId the resting order's id
+     * @param newPrice new limit price
+     * @param newQuantity new open quantity
+     * @param timestamp time of the amend; a re-queued order carries it (replay passes the journaled one)
+     * @return the result; not accepted if the order is not resting
+     */
+    public CommandResult amend(String orderId, long newPrice, long newQuantity, Instant timestamp) {
+        EngineCommand.Amend command = new EngineCommand.Amend(orderId, newPrice, newQuantity);
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        beginCommand();
+        return amendAt(command, timestamp);
+    }
+
+    private CommandResult amendAt(EngineCommand.Amend command, Instant timestamp) {
+        Order resting = book.findOrder(command.orderId());
+        if (resting == null) {
+            return new CommandResult(command, false, List.of());
+        }
+        if (isNoOp(command, resting)) {
+            // Nothing changes, so nothing is journaled or published.
+            return new CommandResult(command, true, List.of());
+        }
+        if (!replayMode) {
+            commandLog.appendAmend(command.orderId(), command.price(), command.quantity(), timestamp);
+        }
+
+        List<Trade> trades = new ArrayList<>();
+        boolean accepted = applyAmend(command, timestamp, trades);
+        publishReadViews();
+        return new CommandResult(command, accepted, trades);
+    }
+
+    /**
+     * Applies several orders and cancels in one call.
+     *
+     * <p>The whole batch is journaled with a single command-log write and fsync before any
+     * command is applied; commands are then matched strictly in list order, exactly as if
+     * they had been submitted one by one. Every cancel, amend and mass cancel is journaled,
+     * including ones that turn out to miss, which replay treats as no-ops.
+     *
+     * @param commands commands to apply, in order
+     * @return one result per command, in the same order
+     */
+    public List<CommandResult> submitBatch(List<EngineCommand> commands) {
+        Objects.requireNonNull(commands, "commands must not be null");
+        for (EngineCommand command : commands) {
+            Objects.requireNonNull(command, "commands must not contain null");
+        }
+        beginCommand();
+        Instant now = time.instant();
+        for (EngineCommand command : commands) {
+            if (command instanceof EngineCommand.Submit submit) {
+                if (!replayMode) {
+                    submit.order().assignTimestamp(now);
+                }
+                book.assignEngineId(submit.order());
+            }
+        }
+
+        if (!replayMode) {
+            List<CommandLog.Record> records = new ArrayList<>(commands.size());
+            for (EngineCommand command : commands) {
+                if (command instanceof EngineCommand.Submit submit) {
+                    records.add(orderRecord(submit.order()));
+                } else if (command instanceof EngineCommand.Cancel cancel) {
+                    records.add(CommandLog.Record.cancel(cancel.orderId(), now));
+                } else if (command instanceof EngineCommand.Amend amend) {
+                    records.add(CommandLog.Record.amend(amend.orderId(), amend.price(), amend.quantity(), now));
+                } else if (command instanceof EngineCommand.MassCancel massCancel) {
+                    records.add(CommandLog.Record.massCancel(
+                            massCancel.side() == null ? null : massCancel.side().name(),
+                            massCancel.minPrice(),
+                            massCancel.maxPrice(),
+                            massCancel.owner(),
+                            now
+                    ));
+                }
+            }
+            commandLog.appendBatch(records);
+        }
+
+        // One trade list for the whole batch; each result gets a view of its own range.
+        List<Trade> trades = new ArrayList<>();
+        int[] tradeEnds = new int[commands.size()];
+        boolean[] accepted = new boolean[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            EngineCommand command = commands.get(i);
+            if (command instanceof EngineCommand.Submit submit) {
+                applySubmit(submit.order(), trades);
+                accepted[i] = true;
+            } else if (command instanceof EngineCommand.Cancel cancel) {
+                accepted[i] = applyCancel(cancel.orderId());
+            } else if (command instanceof EngineCommand.Amend amend) {
+                accepted[i] = applyAmend(amend, now, trades);
+            } else if (command instanceof EngineCommand.MassCancel massCancel) {
+                accepted[i] = applyMassCancel(massCancel) > 0;
+            }
+            publishReadViews();
+            tradeEnds[i] = trades.size();
+        }
+
+        List<Trade> allTrades = Collections.unmodifiableList(trades);
+        List<CommandResult> results = new ArrayList<>(commands.size());
+        int from = 0;
+        for (int i = 0; i < commands.size(); i++) {
+            results.add(new CommandResult(commands.get(i), accepted[i], allTrades.subList(from, tradeEnds[i])));
+            from = tradeEnds[i];
+        }
+        return results;
+    }
+
+    /**
+     * Applies an already-journaled order: parks a stop order until it triggers, otherwise
+     * matches it and rests any remainder, then activates any stops its trades triggered.
+     */
+    private void applySubmit(Order incoming, List<Trade> trades) {
+        if (incoming.getStopPrice() != 0
+                && (lastTradePrice == 0
+                || !StopTriggers.triggers(incoming.getSide(), incoming.getStopPrice(), lastTradePrice))) {
+            stops.add(incoming);
+            return;
+        }
+        applyActive(incoming, incoming.getTimestamp(), trades);
+        activateStops(incoming.getTimestamp(), trades);
+    }
+
+    /**
+     * Activates triggered stops in order until the last trade price stops triggering more.
+     * Each activated stop enters as its limit order, and its own trades may trigger others.
+     *
+     * @param triggerTime timestamp of the order whose command triggered the stops; their trades
+     *                    carry it rather than their own older submission time
+     */
+    private void activateStops(Instant triggerTime, List<Trade> trades) {
+        if (stops.size() == 0 || lastTradePrice == 0) {
+            return;
+        }
+        List<Order> triggered = new ArrayList<>();
+        while (true) {
+            stops.takeTriggered(lastTradePrice, triggered);
+            if (triggered.isEmpty()) {
+                return;
+            }
+            for (Order stop : triggered) {
+                applyActive(stop, triggerTime, trades);
+            }
+            triggered.clear();
+        }
+    }
 
-        // Before storing incoming order, match that order with opposing resting orders 
-        // and come up with list of possible trades
-        matchIncoming(incoming, trades);
+    /**
+     * Matches an active order and rests any remainder.
+     *
+     * @param tradeTime timestamp for the order's trades
+     */
+    private void applyActive(Order incoming, Instant tradeTime, List<Trade> trades) {
+        // The matcher applies the time-in-force rules (FOK kill, no resting market, IOC or
+        // expired GTT remainder) and rests what may rest.
+        matchIncoming(incoming, tradeTime, trades);
 
-        // If incoming order is still active (not fully filled), add to order book
+        // Still active means the remainder now rests in the book.
         if (incoming.isActive()) {
-            book.addOrder(incoming);
-            if (!replayMode) {
+            if (incoming.getExpireAt() != null) {
+                expiries.schedule(incoming.getEngineId(), deadlineMillis(incoming), time.instant().toEpochMilli());
+            }
+            if (aggregatedEvents) {
+                touchLevel(incoming.getSide(), incoming.getPrice());
+            } else if (!replayMode) {
                 dispatcher.publish(new OrderBookEvent(
                         incoming.getSide(),
                         incoming.getPrice(),
                         OrderBookEventType.ADD,
-                        Instant.now(clock)
+                        time.instant()
                 ));
             }
         }
-
-        return trades;
     }
 
     /**
-     * Cancel an order by id.
+     * Removes an order from the book without journaling.
      *
-     * @param orderId the order id to cancel
-     * @return {@code true} if the order was found and cancelled
+     * @return {@code true} if the order was resting
      */
-    public boolean cancel(String orderId) {
-        Objects.requireNonNull(orderId, "orderId must not be null");
-        Optional<OrderLocator> locator = book.cancelOrderAndGetLocator(orderId);
-        if (locator.isEmpty()) {
-            return false;
+    private boolean applyCancel(String orderId) {
+        Order cancelled = matcher.cancel(orderId);
+        if (cancelled == null) {
+            Order stop = stops.remove(orderId);
+            if (stop == null) {
+                return false;
+            }
+            // Never reached the book, so there is no level change to publish.
+            stop.cancel();
+            return true;
         }
-        OrderLocator cancelled = locator.get();
         if (!replayMode) {
             dispatcher.publish(new OrderBookEvent(
-                    cancelled.side(),
-                    cancelled.price(),
+                    cancelled.getSide(),
+                    cancelled.getPrice(),
                     OrderBookEventType.CANCEL,
-                    Instant.now(clock)
+                    time.instant()
             ));
-            commandLog.appendCancel(orderId, Instant.now(clock));
         }
         return true;
     }
 
+    /**
+     * Clears the matching levels and pending stops without journaling.
+     *
+     * @return number of orders cancelled, stops included
+     */
+    private int applyMassCancel(EngineCommand.MassCancel command) {
+        List<Order> removed = book.cancelRange(command.side(), command.minPrice(), command.maxPrice(), command.owner());
+        int stopsCancelled = 0;
+        if (stops.size() > 0) {
+            List<Order> removedStops = new ArrayList<>();
+            stops.removeRange(command.side(), command.minPrice(), command.maxPrice(), command.owner(), removedStops);
+            for (Order stop : removedStops) {
+                stop.cancel();
+            }
+            stopsCancelled = removedStops.size();
+        }
+        int orders = 0;
+        long quantity = 0;
+        for (Order order : removed) {
+            if (order.getRemainingQty() > 0) {
+                orders++;
+                quantity += order.getRemainingQty();
+            }
+        }
+        if (orders > 0 && !replayMode) {
+            dispatcher.publish(new MassCancelEvent(
+                    command.side(),
+                    command.minPrice(),
+                    command.maxPrice(),
+                    orders,
+                    quantity,
+                    time.instant()
+            ));
+        }
+        return orders + stopsCancelled;
+    }
+
+    /**
+     * @return whether the amend leaves the resting order exactly as it is
+     */
+    private static boolean isNoOp(EngineCommand.Amend amend, Order resting) {
+        return amend.price() == resting.getPrice() && amend.quantity() == resting.getRemainingQty();
+    }
+
+    /**
+     * Applies an already-journaled amend. A no-op amend changes nothing and publishes nothing.
+     *
+     * @return {@code true} if the order was resting
+     */
+    private boolean applyAmend(EngineCommand.Amend amend, Instant timestamp, List<Trade> trades) {
+        Order resting = book.findOrder(amend.orderId());
+        if (resting == null) {
+            return false;
+        }
+        if (isNoOp(amend, resting)) {
+            return true;
+        }
+        long oldPrice = resting.getPrice();
+        if (amend.price() == oldPrice && amend.quantity() < resting.getRemainingQty()) {
+            book.reduceOrder(amend.orderId(), amend.quantity());
+            publishBookEvent(resting.getSide(), oldPrice, OrderBookEventType.AMEND);
+            return true;
+        }
+        // Re-queue: same id, engine id and attributes, new price/quantity, back of the queue.
+        // The amend was validated before it was journaled, so building the copy cannot fail.
+        Order replacement = resting.requeued(amend.price(), amend.quantity(), timestamp);
+        book.cancelOrderOrNull(resting.getEngineId());
+        publishBookEvent(resting.getSide(), oldPrice, OrderBookEventType.AMEND);
+        applySubmit(replacement, trades);
+        return true;
+    }
 
     /**
-     * Attempts to match an incoming order against the opposite side of the book
-     * until it is fully filled or no further execution is possible.
+     * Expire every good-till-time order whose expiry has passed, as of now. Does nothing in
+     * replay mode, where expiries come from EXPIRE records.
+     *
+     * @see #expireOrders(Instant)
      */
-    private void matchIncoming(Order incoming, List<Trade> trades) {
-        // Loop terminates when no match is possible (no resting order or prices do not cross).
-        while (incoming.isActive()) {
-            OrderBookSide oppositeSide = (incoming.getSide() == OrderSide.BUY)
-                    ? book.sellSide()
-                    : book.buySide();
+    public int expireOrders() {
+        // Starting a live command already expires everything due at its time.
+        return beginCommand();
+    }
 
-            Order resting = oppositeSide.peekBestOrderOrNull();
-            if (resting == null) {
-                break;
+    /**
+     * Cancel every resting good-till-time order whose expiry is at or before {@code now}.
+     *
+     * <p>Commands expire due orders before they run, so an expired order never trades; a
+     * periodic call also clears them from an idle book. A call that expires anything is
+     * journaled as one EXPIRE record, which replay re-applies at the same time.
+     *
+     * @param now current time (replay passes the journaled one)
+     * @return number of orders expired
+     */
+    public int expireOrders(Instant now) {
+        Objects.requireNonNull(now, "now must not be null");
+        if (expiries.size() == 0) {
+            return 0;
+        }
+        int[] expired = new int[1];
+        expiries.advance(now.toEpochMilli(), (engineId, deadline) -> {
+            Order order = book.findOrder(engineId);
+            // Entries of orders that have since filled, been cancelled or been amended to a new
+            // deadline are simply dropped.
+            if (order == null || order.getExpireAt() == null || deadlineMillis(order) != deadline) {
+                return;
             }
-            if (!incoming.canMatch(resting.getPrice())) {
-                break;
+            book.cancelOrderOrNull(engineId);
+            publishBookEvent(order.getSide(), order.getPrice(), OrderBookEventType.EXPIRE);
+            expired[0]++;
+        });
+        if (expired[0] > 0) {
+            publishReadViews();
+            if (!replayMode) {
+                commandLog.appendExpire(now);
             }
+        }
+        return expired[0];
+    }
 
-            Trade trade = executeTrade(incoming, resting);
-            trades.add(trade);
-            if (!replayMode) {
-                dispatcher.publish(new TradeExecutedEvent(trade, trade.timestamp()));
+    /**
+     * Starts a live command: fixes the engine time every event and journal entry of the
+     * command shares, then expires due orders. This is the only place engine time advances.
+     * Replay takes the time from each record and its expiries from EXPIRE records instead.
+     *
+     * @return number of orders expired
+     */
+    private int beginCommand() {
+        if (replayMode) {
+            return 0;
+        }
+        time.advance();
+        return expireOrders(time.instant());
+    }
+
+    /**
+     * @return the order's expiry in epoch milliseconds, rounded up so it never fires early
+     */
+    private static long deadlineMillis(Order order) {
+        Instant expireAt = order.getExpireAt();
+        return expireAt.toEpochMilli() + (expireAt.getNano() % 1_000_000 == 0 ? 0 : 1);
+    }
+
+    private void publishBookEvent(OrderSide side, long price, OrderBookEventType type) {
+        if (!replayMode) {
+            dispatcher.publish(new OrderBookEvent(side, price, type, time.instant()));
+        }
+    }
+
+    /**
+     * Matches an incoming order against the opposite side of the book until it is fully
+     * filled or no further execution is possible, collecting the trades into {@code trades},
+     * then rests or cancels any remainder by its time in force.
+     */
+    private void matchIncoming(Order incoming, Instant tradeTime, List<Trade> trades) {
+        tradeRecorder.target = trades;
+        tradeRecorder.tradeTime = tradeTime;
+        // A market order sweeps whole levels: publish one summary per level, not one per fill.
+        tradeRecorder.summarize = (incoming.getType() == OrderType.MARKET || aggregatedEvents) && !replayMode;
+        try {
+            matcher.submit(incoming, time.instant(), tradeRecorder);
+        } finally {
+            if (!aggregatedEvents) {
+                tradeRecorder.flushSummary();
             }
+            tradeRecorder.target = null;
+            tradeRecorder.tradeTime = null;
+        }
+    }
 
-            OrderSide restingSide = (incoming.getSide() == OrderSide.BUY) ? OrderSide.SELL : OrderSide.BUY;
-            Order removed = book.removeBestOrderIfInactive(restingSide);
-            if (removed != null) {
-                if (!replayMode) {
-                    dispatcher.publish(new OrderBookEvent(
-                            removed.getSide(),
-                            removed.getPrice(),
-                            OrderBookEventType.REMOVE,
-                            Instant.now(clock)
-                    ));
+    private void touchLevel(OrderSide side, long price) {
+        if (!replayMode) {
+            touchedLevels.add(new Level(side, price));
+        }
+    }
+
+    /**
+     * Publishes the command's pending trade summary and one final quantity per touched level.
+     */
+    private void publishAggregatedEvents() {
+        tradeRecorder.flushSummary();
+        if (touchedLevels.isEmpty()) {
+            return;
+        }
+        Instant now = time.instant();
+        for (Level level : touchedLevels) {
+            OrderBookSide side = level.side() == OrderSide.BUY ? book.buySide() : book.sellSide();
+            dispatcher.publish(new LevelUpdateEvent(level.side(), level.price(), side.levelQty(level.price()), now));
+        }
+        touchedLevels.clear();
+    }
+
+    /**
+     * Turns the matcher's fills into persisted {@link Trade}s and live events.
+     */
+    private final class TradeRecorder implements FillSink {
+        private List<Trade> target;
+        private Instant tradeTime;
+        private boolean summarize;
+        // Fills at the current level not yet published, while summarizing.
+        private final List<Trade> levelFills = new ArrayList<>();
+        private OrderSide takerSide;
+
+        @Override
+        public void onFill(Order incoming, Order resting, long price, long quantity) {
+            Trade trade = recordTrade(incoming, resting, price, quantity, tradeTime);
+            target.add(trade);
+            lastTradePrice = price;
+            if (aggregatedEvents) {
+                touchLevel(resting.getSide(), price);
+            }
+            if (summarize) {
+                if (!levelFills.isEmpty()
+                        && (levelFills.get(0).price() != price || takerSide != incoming.getSide())) {
+                    flushSummary();
                 }
+                takerSide = incoming.getSide();
+                levelFills.add(trade);
+            } else if (!replayMode) {
+                dispatcher.publish(new TradeExecutedEvent(trade, trade.timestamp()));
+            }
+        }
+
+        /**
+         * Publishes the pending level's fills as one {@link TradeSummaryEvent}.
+         */
+        void flushSummary() {
+            if (levelFills.isEmpty()) {
+                return;
+            }
+            long quantity = 0;
+            for (Trade fill : levelFills) {
+                quantity += fill.quantity();
+            }
+            Trade first = levelFills.get(0);
+            Trade last = levelFills.get(levelFills.size() - 1);
+            dispatcher.publish(new TradeSummaryEvent(
+                    takerSide,
+                    first.price(),
+                    quantity,
+                    levelFills.size(),
+                    first.sequence(),
+                    last.sequence(),
+                    last.timestamp()
+            ));
+            levelFills.clear();
+        }
+
+        @Override
+        public void onRestingRemoved(Order resting) {
+            // With aggregated events the level's final quantity is published instead.
+            if (!replayMode && !aggregatedEvents) {
+                dispatcher.publish(new OrderBookEvent(
+                        resting.getSide(),
+                        resting.getPrice(),
+                        OrderBookEventType.REMOVE,
+                        time.instant()
+                ));
             }
         }
     }
 
     /**
-     * Executes a single trade between an incoming order and a resting order.
-     *
-     * <p>
-     * Execution rules:
-     * <ul>
-     *   <li>Fill quantity = min(remaining quantities)</li>
-     *   <li>Trade price = resting order's price</li>
-     * </ul>
-     *
-     * <p>
-     * This method updates both orders' remaining quantities and derives their statuses.
+     * Creates and persists the trade for one execution the matcher has already applied
+     * to both orders.
      *
      * @param incoming the incoming order
      * @param resting the resting order
+     * @param price execution price
+     * @param quantity executed quantity
+     * @param timestamp trade time: the incoming order's, or for an activated stop the
+     *                  triggering order's
      * @return the resulting trade
      */
-    private Trade executeTrade(Order incoming, Order resting) {
-        // Validity Check: orders must be on opposite sides
-        if (incoming.getSide() == resting.getSide()) {
-            throw new IllegalArgumentException("Orders must be on opposite sides to execute trade");
-        }
-
+    private Trade recordTrade(Order incoming, Order resting, long price, long quantity, Instant timestamp) {
         // Determine which is BUY and which is SELL
         Order buy = (incoming.getSide() == OrderSide.BUY) ? incoming : resting;
         Order sell = (incoming.getSide() == OrderSide.SELL) ? incoming : resting;
 
-        // Calculate fill quantity
-        long fillQty = Math.min(buy.getRemainingQty(), sell.getRemainingQty());
-        if (fillQty <= 0) {
-            throw new IllegalStateException("Cannot execute trade with zero quantity");
-        }
-
-        // Execute the fills on both orders
-        buy.execute(fillQty);
-        sell.execute(fillQty);
-
-        // Create and persist the Trade record
         Trade trade = new Trade(
                 buy.getId(),
                 sell.getId(),
-                resting.getPrice(),
-                fillQty,
-                // Use the aggressive order timestamp so replay rebuilds the same
+                price,
+                quantity,
+                // Use the journaled order timestamp so replay rebuilds the same
                 // trade history even when recovery runs under a different clock.
-                incoming.getTimestamp()
+                timestamp,
+                ++tradeSequence
         );
-        tradeStore.save(trade);
+        // Idempotent by sequence: replay over an already-populated store reuses existing rows.
+        int position = tradeStore.save(trade);
+        indexTradePosition(buy.getId(), position);
+        indexTradePosition(sell.getId(), position);
         return trade;
     }
 
+    /**
+     * Appends a trade position to an order's index entry.
+     */
+    private void indexTradePosition(String orderId, int position) {
+        tradePositionsByOrderId.computeIfAbsent(orderId, id -> new TradePositions()).add(position);
+    }
+
+    /**
+     * One order's trade positions: a growable int array appended to by the engine thread only.
+     * Appending is amortized O(1) with no boxing. Readers on other threads read the count, then
+     * the array. The array is replaced before the count covers a new slot, so a reader always
+     * sees at least {@code count} filled slots.
+     */
+    private static final class TradePositions {
+        private volatile int[] positions = new int[2];
+        private volatile int count;
+
+        void add(int position) {
+            int[] current = positions;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count * 2);
+                positions = current;
+            }
+            current[count] = position;
+            count = count + 1;
+        }
+    }
+
+    /**
+     * @return sequence of the most recent trade, 0 if none has executed yet
+     */
+    public long lastTradeSequence() {
+        return tradeSequence;
+    }
+
     /**
      * @return a read-only view of all trades in execution order.
      */
@@ -280,8 +1020,91 @@ public class MatchingEngine {
         return tradeStore.findAll();
     }
 
+    /**
+     * Returns the trades an order participated in, without scanning the full history.
+     *
+     * @param orderId the buy or sell order id
+     * @return the order's trades in execution order (empty if it never traded)
+     */
+    public List<Trade> tradesForOrder(String orderId) {
+        Objects.requireNonNull(orderId, "orderId must not be null");
+        TradePositions positions = tradePositionsByOrderId.get(orderId);
+        if (positions == null) {
+            return List.of();
+        }
+        int count = positions.count;
+        return tradeStore.findByPositions(positions.positions, count);
+    }
+
     // For UI and debugging
+    /**
+     * Latest published top of book. Safe to call from any thread: it is a volatile read of an
+     * immutable record, with no locking and no allocation.
+     *
+     * @return best bid/ask as of the last applied command
+     */
+    public TopOfBook topOfBook() {
+        return topOfBook;
+    }
+
+    /**
+     * Book version as of the last applied command. Safe to call from any thread.
+     *
+     * @return published book version
+     */
+    public long bookVersion() {
+        return publishedBookVersion;
+    }
+
+    /**
+     * Most recently built depth snapshot. Safe to call from any thread, but may be older than
+     * {@link #bookVersion()}; compare versions and call {@link #depthSnapshot()} if so.
+     *
+     * @return last built snapshot
+     */
+    public DepthSnapshot latestDepthSnapshot() {
+        return depthSnapshot;
+    }
+
+    /**
+     * Returns a depth snapshot of the current book, building it only if the book changed
+     * since the last one. Must run on the thread that applies commands.
+     *
+     * @return snapshot at the current book version
+     */
+    public DepthSnapshot depthSnapshot() {
+        DepthSnapshot current = depthSnapshot;
+        if (current.version() != book.version()) {
+            current = book.depthSnapshot();
+            depthSnapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Publishes what lock-free readers see: the book version, and the top of book if it
+     * changed since the last publication. Called once per applied command, so it also
+     * publishes the command's aggregated events.
+     */
+    private void publishReadViews() {
+        if (replayMode) {
+            return;
+        }
+        publishAggregatedEvents();
+        publishedBookVersion = book.version();
+        TopOfBook previous = topOfBook;
+        TopOfBook current = book.topOfBook(previous.sequence() + 1);
+        if (!current.sameQuoteAs(previous)) {
+            topOfBook = current;
+        }
+    }
+
     public OrderBook getBook() {
         return book;
     }
+
+    // For streaming exports that read trades.csv directly
+    public FileTradeStore getTradeStore() {
+        return tradeStore;
+    }
 }
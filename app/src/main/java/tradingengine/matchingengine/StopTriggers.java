@@ -0,0 +1,147 @@
+package tradingengine.matchingengine;
+
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Stop orders waiting for their trigger, indexed by stop price per side.
+ *
+ * <p>A BUY stop triggers once the last trade price rises to its stop price or above, a SELL
+ * stop once it falls to its stop price or below. Taking the triggered stops is a range scan
+ * over the crossed stop prices only, never a scan of every pending stop. They come out in the
+ * order the price move reaches them (BUY stops lowest stop price first, SELL stops highest
+ * first, oldest first at a price), BUY stops before SELL stops, so activation is the same
+ * every time the same trades happen. Not thread-safe.
+ */
+public final class StopTriggers {
+
+    private final NavigableMap<Long, ArrayDeque<Order>> buyStops = new TreeMap<>();
+    private final NavigableMap<Long, ArrayDeque<Order>> sellStops = new TreeMap<>();
+    private final Map<String, Order> stopsById = new HashMap<>();
+
+    /**
+     * @return whether a stop at {@code stopPrice} on {@code side} triggers at {@code lastPrice}
+     */
+    public static boolean triggers(OrderSide side, long stopPrice, long lastPrice) {
+        return side == OrderSide.BUY ? lastPrice >= stopPrice : lastPrice <= stopPrice;
+    }
+
+    /**
+     * Parks a stop order until it triggers.
+     *
+     * @param stop an active order with a stop price
+     */
+    public void add(Order stop) {
+        Objects.requireNonNull(stop, "stop must not be null");
+        if (stop.getStopPrice() == 0) {
+            throw new IllegalArgumentException("order has no stop price");
+        }
+        if (stopsById.putIfAbsent(stop.getId(), stop) != null) {
+            throw new IllegalStateException("duplicate stop order id " + stop.getId());
+        }
+        stopsFor(stop.getSide()).computeIfAbsent(stop.getStopPrice(), price -> new ArrayDeque<>()).addLast(stop);
+    }
+
+    /**
+     * Removes a pending stop, e.g. on cancel.
+     *
+     * @return the removed stop, or {@code null} if none is pending under this id
+     */
+    public Order remove(String orderId) {
+        Order stop = stopsById.remove(orderId);
+        if (stop == null) {
+            return null;
+        }
+        NavigableMap<Long, ArrayDeque<Order>> stops = stopsFor(stop.getSide());
+        ArrayDeque<Order> queue = stops.get(stop.getStopPrice());
+        queue.remove(stop);
+        if (queue.isEmpty()) {
+            stops.remove(stop.getStopPrice());
+        }
+        return stop;
+    }
+
+    /**
+     * Removes every pending stop on a side (or both) whose limit price is within an inclusive
+     * range, optionally only one client's, and appends it to {@code out}; the stop side of a
+     * mass cancel.
+     *
+     * @param side side to clear, or {@code null} for both
+     * @param owner client whose stops to clear, or {@code null} for everyone's
+     * @param out receives the removed stops
+     */
+    public void removeRange(OrderSide side, long minPrice, long maxPrice, String owner, List<Order> out) {
+        if (stopsById.isEmpty()) {
+            return;
+        }
+        if (side != OrderSide.SELL) {
+            removeRange(buyStops, minPrice, maxPrice, owner, out);
+        }
+        if (side != OrderSide.BUY) {
+            removeRange(sellStops, minPrice, maxPrice, owner, out);
+        }
+    }
+
+    private void removeRange(
+            NavigableMap<Long, ArrayDeque<Order>> stops, long minPrice, long maxPrice, String owner, List<Order> out) {
+        // Indexed by stop price, so every pending stop of the side is checked.
+        for (Iterator<ArrayDeque<Order>> it = stops.values().iterator(); it.hasNext(); ) {
+            ArrayDeque<Order> queue = it.next();
+            for (Iterator<Order> queued = queue.iterator(); queued.hasNext(); ) {
+                Order stop = queued.next();
+                if (stop.getPrice() >= minPrice && stop.getPrice() <= maxPrice
+                        && (owner == null || owner.equals(stop.getOwner()))) {
+                    queued.remove();
+                    stopsById.remove(stop.getId());
+                    out.add(stop);
+                }
+            }
+            if (queue.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every stop triggered at {@code lastPrice} and appends it to {@code out}, in
+     * activation order.
+     *
+     * @param lastPrice the last trade price
+     * @param out receives the triggered stops
+     */
+    public void takeTriggered(long lastPrice, List<Order> out) {
+        // Crossed BUY stops are those at or below the last price, SELL stops at or above it.
+        take(buyStops.headMap(lastPrice, true), out);
+        take(sellStops.tailMap(lastPrice, true).descendingMap(), out);
+    }
+
+    private void take(NavigableMap<Long, ArrayDeque<Order>> crossed, List<Order> out) {
+        for (Iterator<ArrayDeque<Order>> it = crossed.values().iterator(); it.hasNext(); ) {
+            for (Order stop : it.next()) {
+                stopsById.remove(stop.getId());
+                out.add(stop);
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * @return number of pending stops
+     */
+    public int size() {
+        return stopsById.size();
+    }
+
+    private NavigableMap<Long, ArrayDeque<Order>> stopsFor(OrderSide side) {
+        return side == OrderSide.BUY ? buyStops : sellStops;
+    }
+}
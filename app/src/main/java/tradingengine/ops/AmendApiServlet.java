@@ -0,0 +1,79 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.matchingengine.CommandResult;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST /api/amend
+ *
+ * Changes a resting order's price and/or quantity in one command. Reducing quantity at the
+ * same price keeps the order's place in the queue; anything else re-queues it.
+ *
+ * Body: {"orderId":"...","price":101,"quantity":3}
+ */
+public final class AmendApiServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private final EngineRuntime runtime;
+
+    public AmendApiServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    static final class AmendRequest {
+        public String orderId;
+        public long price;
+        public long quantity;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            // Jackson APIs are not null-annotated; suppress Eclipse's unsafe @NonNull generic inference here.
+            @SuppressWarnings("null")
+            AmendRequest body = MAPPER.readValue(req.getInputStream(), AmendRequest.class);
+
+            if (body.orderId == null || body.orderId.isBlank()) {
+                runtime.incRejects();
+                resp.setStatus(400);
+                resp.setContentType("application/json; charset=utf-8");
+                MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", "orderId is required"));
+                return;
+            }
+
+            String orderId = body.orderId.trim();
+            runtime.incAmendsReceived();
+            CommandResult result = runtime.call(engine -> engine.amend(orderId, body.price, body.quantity));
+            runtime.addTradesExecuted(result.trades().size());
+
+            resp.setStatus(result.accepted() ? 200 : 404);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of(
+                    "ok", result.accepted(),
+                    "orderId", orderId,
+                    "trades", result.trades().size()
+            ));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
+        } catch (Exception e) {
+            runtime.incRejects();
+            resp.setStatus(400);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", String.valueOf(e.getMessage())));
+        }
+    }
+}
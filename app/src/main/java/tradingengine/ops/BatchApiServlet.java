@@ -0,0 +1,185 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+import tradingengine.matchingengine.CommandResult;
+import tradingengine.matchingengine.EngineCommand;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST /api/batch
+ *
+ * Applies many orders, cancels, amends and mass cancels in one request, e.g. a market maker re-quoting a ladder.
+ * The batch is journaled with one WAL write and matched in list order on the matching thread.
+ *
+ * Body: {"commands":[{"type":"ORDER","side":"BUY","price":100,"quantity":5},{"type":"CANCEL","orderId":"..."},
+ *        {"type":"AMEND","orderId":"...","price":101,"quantity":3},{"type":"MASS_CANCEL","side":"SELL","minPrice":105}]}
+ */
+public final class BatchApiServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_COMMANDS = 1000;
+    private final EngineRuntime runtime;
+
+    public BatchApiServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    static final class BatchRequest {
+        public List<CommandRequest> commands;
+    }
+
+    static final class CommandRequest {
+        public String type;     // ORDER / CANCEL / AMEND / MASS_CANCEL
+        public String side;     // ORDER: BUY / SELL; MASS_CANCEL: optional
+        public long price;      // ORDER, AMEND
+        public long quantity;   // ORDER, AMEND
+        public String orderId;  // CANCEL, AMEND
+        public Long minPrice;   // MASS_CANCEL, optional
+        public Long maxPrice;   // MASS_CANCEL, optional
+        public String owner;    // ORDER, MASS_CANCEL: optional client id
+        public String timeInForce; // ORDER: optional GTC / IOC / FOK / GTT
+        public String expireAt;    // ORDER: optional ISO-8601 instant, makes it GTT
+        public long stopPrice;     // ORDER: optional trigger price, makes it a stop order
+        public String orderType;   // ORDER: optional LIMIT / MARKET (price is the protection limit)
+    }
+
+    record ResultSnapshot(String type, String orderId, boolean accepted, int trades) {}
+    record BatchSnapshot(boolean accepted, List<ResultSnapshot> results) {}
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            // Jackson APIs are not null-annotated; suppress Eclipse's unsafe @NonNull generic inference here.
+            @SuppressWarnings("null")
+            BatchRequest body = MAPPER.readValue(req.getInputStream(), BatchRequest.class);
+            if (body.commands == null || body.commands.isEmpty()) {
+                throw new IllegalArgumentException("commands is required");
+            }
+            if (body.commands.size() > MAX_COMMANDS) {
+                throw new IllegalArgumentException("at most " + MAX_COMMANDS + " commands per batch");
+            }
+
+            // Validate the whole batch up front so a bad entry rejects it before anything is journaled.
+            List<EngineCommand> commands = new ArrayList<>(body.commands.size());
+            Instant now = Instant.now(); // provisional; the engine restamps orders with its own time
+            int orders = 0;
+            int cancels = 0;
+            int amends = 0;
+            int massCancels = 0;
+            for (CommandRequest c : body.commands) {
+                EngineCommand command = toCommand(c, now);
+                commands.add(command);
+                if (command instanceof EngineCommand.Submit) {
+                    orders++;
+                } else if (command instanceof EngineCommand.Cancel) {
+                    cancels++;
+                } else if (command instanceof EngineCommand.Amend) {
+                    amends++;
+                } else if (command instanceof EngineCommand.MassCancel) {
+                    massCancels++;
+                }
+            }
+
+            List<CommandResult> results = runtime.call(engine -> engine.submitBatch(commands));
+
+            List<ResultSnapshot> snapshots = new ArrayList<>(results.size());
+            long trades = 0;
+            for (CommandResult r : results) {
+                trades += r.trades().size();
+                snapshots.add(toSnapshot(r));
+            }
+            runtime.addOrdersReceived(orders);
+            runtime.addCancelsReceived(cancels);
+            runtime.addAmendsReceived(amends);
+            runtime.addMassCancelsReceived(massCancels);
+            runtime.addTradesExecuted(trades);
+
+            resp.setStatus(200);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), new BatchSnapshot(true, snapshots));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("accepted", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
+        } catch (Exception e) {
+            runtime.incRejects();
+            resp.setStatus(400);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of(
+                    "accepted", false,
+                    "error", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+
+    private static EngineCommand toCommand(CommandRequest c, Instant now) {
+        if (c == null || c.type == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        switch (c.type.trim().toUpperCase(Locale.ROOT)) {
+            case "ORDER": {
+                if (c.side == null) {
+                    throw new IllegalArgumentException("side is required");
+                }
+                OrderSide side = OrderSide.valueOf(c.side.trim().toUpperCase(Locale.ROOT));
+                Order order = Order.withEngineAssignedId(side, c.price, c.quantity, now);
+                if (c.owner != null) {
+                    order.assignOwner(c.owner.trim());
+                }
+                if (c.stopPrice != 0) {
+                    order.assignStopPrice(c.stopPrice);
+                }
+                OrderApiServlet.applyOrderType(order, c.orderType);
+                OrderApiServlet.applyTimeInForce(order, c.timeInForce, c.expireAt);
+                return new EngineCommand.Submit(order);
+            }
+            case "CANCEL": {
+                if (c.orderId == null || c.orderId.isBlank()) {
+                    throw new IllegalArgumentException("orderId is required");
+                }
+                return new EngineCommand.Cancel(c.orderId.trim());
+            }
+            case "AMEND": {
+                if (c.orderId == null || c.orderId.isBlank()) {
+                    throw new IllegalArgumentException("orderId is required");
+                }
+                return new EngineCommand.Amend(c.orderId.trim(), c.price, c.quantity);
+            }
+            case "MASS_CANCEL":
+                return MassCancelApiServlet.toCommand(c.side, c.minPrice, c.maxPrice, c.owner);
+            default:
+                throw new IllegalArgumentException("unknown command type: " + c.type);
+        }
+    }
+
+    private static ResultSnapshot toSnapshot(CommandResult r) {
+        if (r.command() instanceof EngineCommand.Submit submit) {
+            return new ResultSnapshot("ORDER", submit.order().getId(), r.accepted(), r.trades().size());
+        }
+        if (r.command() instanceof EngineCommand.Amend amend) {
+            return new ResultSnapshot("AMEND", amend.orderId(), r.accepted(), r.trades().size());
+        }
+        if (r.command() instanceof EngineCommand.MassCancel) {
+            return new ResultSnapshot("MASS_CANCEL", null, r.accepted(), 0);
+        }
+        EngineCommand.Cancel cancel = (EngineCommand.Cancel) r.command();
+        return new ResultSnapshot("CANCEL", cancel.orderId(), r.accepted(), 0);
+    }
+}
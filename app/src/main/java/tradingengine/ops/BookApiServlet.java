@@ -4,16 +4,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.book.DepthSnapshot;
 import tradingengine.book.OrderBookSide;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * GET /api/book
  *
  * JSON snapshot for UI state synchronization.
  * Optional fallback: ?format=text for human-readable dump.
+ * Optional: ?depth=N returns only the best N levels per side; ?orders=false omits per-order lists.
+ *
+ * Book state is owned by the matching thread, so snapshots are built there; the JSON view
+ * is served from the engine's versioned depth snapshot and rebuilt only when the book changed.
  */
 public final class BookApiServlet extends HttpServlet {
     private static final ObjectMapper MAPPER = new ObjectMapper();
@@ -23,23 +31,72 @@ public final class BookApiServlet extends HttpServlet {
         this.runtime = runtime;
     }
 
-    record BookSnapshot(List<OrderBookSide.LevelSnapshot> bids, List<OrderBookSide.LevelSnapshot> asks) {}
+    record BookSnapshot(long version, List<OrderBookSide.LevelSnapshot> bids, List<OrderBookSide.LevelSnapshot> asks) {}
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        String format = req.getParameter("format");
-        if ("text".equalsIgnoreCase(format)) {
+        try {
+            String format = req.getParameter("format");
+            if ("text".equalsIgnoreCase(format)) {
+                String dump = runtime.call(engine -> engine.getBook().dump());
+                resp.setStatus(200);
+                resp.setContentType("text/plain; charset=utf-8");
+                resp.getWriter().print(dump);
+                return;
+            }
+
+            int maxLevels;
+            try {
+                maxLevels = parseDepth(req.getParameter("depth"));
+            } catch (IllegalArgumentException e) {
+                resp.setStatus(400);
+                resp.setContentType("application/json; charset=utf-8");
+                MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", e.getMessage()));
+                return;
+            }
+            boolean includeOrders = !"false".equalsIgnoreCase(req.getParameter("orders"));
+
+            DepthSnapshot latest = runtime.engine().latestDepthSnapshot();
+            DepthSnapshot depth;
+            if (includeOrders && maxLevels == Integer.MAX_VALUE) {
+                depth = runtime.depthSnapshot();
+            } else if (latest.version() == runtime.engine().bookVersion()) {
+                // The shared full snapshot is current: cut it down instead of touching the book.
+                depth = latest.limit(maxLevels, includeOrders);
+            } else {
+                // Otherwise walk only the requested levels on the matching thread.
+                depth = runtime.call(engine -> new DepthSnapshot(
+                        engine.getBook().version(),
+                        engine.getBook().buySide().snapshotLevels(maxLevels, includeOrders),
+                        engine.getBook().sellSide().snapshotLevels(maxLevels, includeOrders)
+                ));
+            }
+            BookSnapshot snapshot = new BookSnapshot(depth.version(), depth.bids(), depth.asks());
+
             resp.setStatus(200);
-            resp.setContentType("text/plain; charset=utf-8");
-            resp.getWriter().print(runtime.engine().getBook().dump());
-            return;
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), snapshot);
+        } catch (RejectedExecutionException | TimeoutException e) {
+            resp.setStatus(503);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
         }
+    }
 
-        List<OrderBookSide.LevelSnapshot> bids = runtime.engine().getBook().buySide().snapshotLevels();
-        List<OrderBookSide.LevelSnapshot> asks = runtime.engine().getBook().sellSide().snapshotLevels();
-
-        resp.setStatus(200);
-        resp.setContentType("application/json; charset=utf-8");
-        MAPPER.writeValue(resp.getOutputStream(), new BookSnapshot(bids, asks));
+    private static int parseDepth(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Integer.MAX_VALUE;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid depth: " + raw);
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException("depth must be positive: " + raw);
+        }
+        return value;
     }
 }
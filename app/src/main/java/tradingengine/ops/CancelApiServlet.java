@@ -7,6 +7,8 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * POST /api/cancel
@@ -41,11 +43,20 @@ public final class CancelApiServlet extends HttpServlet {
             }
 
             runtime.incCancelsReceived();
-            boolean ok = runtime.engine().cancel(body.orderId);
+            boolean ok = runtime.call(engine -> engine.cancel(body.orderId));
 
             resp.setStatus(ok ? 200 : 404);
             resp.setContentType("application/json; charset=utf-8");
             MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", ok, "orderId", body.orderId));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
         } catch (Exception e) {
             runtime.incRejects();
             resp.setStatus(400);
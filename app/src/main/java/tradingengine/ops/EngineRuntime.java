@@ -1,10 +1,15 @@
 package tradingengine.ops;
 
+import tradingengine.book.DepthSnapshot;
+import tradingengine.matchingengine.EngineSequencer;
 import tradingengine.matchingengine.MatchingEngine;
 import tradingengine.websocket.MarketDataBroadcaster;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -16,11 +21,15 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public final class EngineRuntime {
 
+    // How long a request thread waits for the matching thread before giving up with 503.
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(5);
+
     // Used to calculate uptime for /metrics
     private final Instant startTime = Instant.now();
 
     // Core components
     private final MatchingEngine engine;
+    private final EngineSequencer sequencer;
     private final MarketDataBroadcaster broadcaster;
 
     // Marks whether the service is ready to accept traffic
@@ -29,18 +38,54 @@ public final class EngineRuntime {
     // Lightweight counters exposed via /metrics
     private final AtomicLong ordersReceived = new AtomicLong();
     private final AtomicLong cancelsReceived = new AtomicLong();
+    private final AtomicLong amendsReceived = new AtomicLong();
+    private final AtomicLong massCancelsReceived = new AtomicLong();
+    private final AtomicLong quotesReceived = new AtomicLong();
     private final AtomicLong tradesExecuted = new AtomicLong();
     private final AtomicLong rejects = new AtomicLong();
 
-    public EngineRuntime(MatchingEngine engine, MarketDataBroadcaster broadcaster) {
+    public EngineRuntime(MatchingEngine engine, EngineSequencer sequencer, MarketDataBroadcaster broadcaster) {
         this.engine = Objects.requireNonNull(engine);
+        this.sequencer = Objects.requireNonNull(sequencer);
         this.broadcaster = Objects.requireNonNull(broadcaster);
     }
 
     public Instant startTime() { return startTime; }
 
+    /**
+     * Direct engine access for thread-safe reads only (trade store, order-id index).
+     * Anything touching the book must go through {@link #call}.
+     */
     public MatchingEngine engine() { return engine; }
 
+    public EngineSequencer sequencer() { return sequencer; }
+
+    /**
+     * Runs a command on the matching thread and waits for its result.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the sequencer is full or closed
+     * @throws TimeoutException if the matching thread did not get to the command in time; it then never runs
+     */
+    public <T> T call(Function<MatchingEngine, T> command) throws TimeoutException, InterruptedException {
+        return sequencer.call(command, COMMAND_TIMEOUT);
+    }
+
+    /**
+     * Current depth snapshot. Served from the last published snapshot when the book has not
+     * changed since; otherwise one command on the matching thread builds it, and concurrent
+     * readers at the same version all get that one instance.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the sequencer is full or closed
+     * @throws TimeoutException if the matching thread did not get to the command in time; it then never runs
+     */
+    public DepthSnapshot depthSnapshot() throws TimeoutException, InterruptedException {
+        DepthSnapshot latest = engine.latestDepthSnapshot();
+        if (latest.version() == engine.bookVersion()) {
+            return latest;
+        }
+        return call(MatchingEngine::depthSnapshot);
+    }
+
     public MarketDataBroadcaster broadcaster() { return broadcaster; }
 
     public boolean isReady() { return ready.get(); }
@@ -53,6 +98,20 @@ public final class EngineRuntime {
 
     public void incCancelsReceived() { cancelsReceived.incrementAndGet(); }
 
+    public void incAmendsReceived() { amendsReceived.incrementAndGet(); }
+
+    public void incMassCancelsReceived() { massCancelsReceived.incrementAndGet(); }
+
+    public void incQuotesReceived() { quotesReceived.incrementAndGet(); }
+
+    public void addOrdersReceived(long n) { ordersReceived.addAndGet(n); }
+
+    public void addCancelsReceived(long n) { cancelsReceived.addAndGet(n); }
+
+    public void addAmendsReceived(long n) { amendsReceived.addAndGet(n); }
+
+    public void addMassCancelsReceived(long n) { massCancelsReceived.addAndGet(n); }
+
     public void addTradesExecuted(long n) { tradesExecuted.addAndGet(n); }
 
     public void incRejects() { rejects.incrementAndGet(); }
@@ -61,6 +120,12 @@ public final class EngineRuntime {
 
     public long cancelsReceived() { return cancelsReceived.get(); }
 
+    public long amendsReceived() { return amendsReceived.get(); }
+
+    public long massCancelsReceived() { return massCancelsReceived.get(); }
+
+    public long quotesReceived() { return quotesReceived.get(); }
+
     public long tradesExecuted() { return tradesExecuted.get(); }
 
     public long rejects() { return rejects.get(); }
@@ -0,0 +1,85 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.domain.OrderSide;
+import tradingengine.matchingengine.EngineCommand;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST /api/cancel/mass
+ *
+ * Pulls many resting orders in one command, e.g. all quotes during a volatility spike.
+ * Every field is optional: no side clears both, missing bounds leave the range open, and
+ * no owner clears every client's orders.
+ *
+ * Body: {"side":"BUY","minPrice":95,"maxPrice":100,"owner":"mm-1"}
+ */
+public final class MassCancelApiServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private final EngineRuntime runtime;
+
+    public MassCancelApiServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    static final class MassCancelRequest {
+        public String side;     // BUY / SELL / omitted for both
+        public Long minPrice;
+        public Long maxPrice;
+        public String owner;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            // Jackson APIs are not null-annotated; suppress Eclipse's unsafe @NonNull generic inference here.
+            @SuppressWarnings("null")
+            MassCancelRequest body = MAPPER.readValue(req.getInputStream(), MassCancelRequest.class);
+            EngineCommand.MassCancel command = toCommand(body.side, body.minPrice, body.maxPrice, body.owner);
+
+            runtime.incMassCancelsReceived();
+            int cancelled = runtime.call(engine -> engine.massCancel(command));
+
+            resp.setStatus(200);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", true, "cancelled", cancelled));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
+        } catch (Exception e) {
+            runtime.incRejects();
+            resp.setStatus(400);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Builds a mass-cancel command from optional request fields; shared with the batch API.
+     */
+    static EngineCommand.MassCancel toCommand(String side, Long minPrice, Long maxPrice, String owner) {
+        OrderSide parsedSide = (side == null || side.isBlank())
+                ? null
+                : OrderSide.valueOf(side.trim().toUpperCase(Locale.ROOT));
+        return new EngineCommand.MassCancel(
+                parsedSide,
+                minPrice == null ? 0 : minPrice,
+                maxPrice == null ? Long.MAX_VALUE : maxPrice,
+                owner == null ? null : owner.trim()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.matchingengine.MassQuote;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST /api/quote
+ *
+ * Replaces a market maker's whole two-sided ladder in one command instead of one order call
+ * per level. Unchanged levels keep their queue position; the response has one ack per level.
+ *
+ * Body: {"owner":"mm-1","bids":[{"price":99,"quantity":5}],"asks":[{"price":101,"quantity":5}]}
+ */
+public final class MassQuoteApiServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_LEVELS = 500;
+    private final EngineRuntime runtime;
+
+    public MassQuoteApiServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    static final class QuoteRequest {
+        public String owner;
+        public List<LevelRequest> bids;
+        public List<LevelRequest> asks;
+    }
+
+    static final class LevelRequest {
+        public long price;
+        public long quantity;
+    }
+
+    record QuoteSnapshot(boolean ok, List<MassQuote.Ack> acks, int trades) {}
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            // Jackson APIs are not null-annotated; suppress Eclipse's unsafe @NonNull generic inference here.
+            @SuppressWarnings("null")
+            QuoteRequest body = MAPPER.readValue(req.getInputStream(), QuoteRequest.class);
+            if (body.owner == null || body.owner.isBlank()) {
+                throw new IllegalArgumentException("owner is required");
+            }
+            MassQuote quote = new MassQuote(body.owner.trim(), toLevels(body.bids), toLevels(body.asks));
+
+            runtime.incQuotesReceived();
+            MassQuote.Result result = runtime.call(engine -> engine.massQuote(quote));
+            runtime.addTradesExecuted(result.trades().size());
+
+            resp.setStatus(200);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), new QuoteSnapshot(true, result.acks(), result.trades().size()));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
+        } catch (Exception e) {
+            runtime.incRejects();
+            resp.setStatus(400);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private static List<MassQuote.Level> toLevels(List<LevelRequest> requests) {
+        if (requests == null) {
+            return List.of();
+        }
+        if (requests.size() > MAX_LEVELS) {
+            throw new IllegalArgumentException("at most " + MAX_LEVELS + " levels per side");
+        }
+        List<MassQuote.Level> levels = new ArrayList<>(requests.size());
+        for (LevelRequest r : requests) {
+            if (r == null) {
+                throw new IllegalArgumentException("level must not be null");
+            }
+            levels.add(new MassQuote.Level(r.price, r.quantity));
+        }
+        return levels;
+    }
+}
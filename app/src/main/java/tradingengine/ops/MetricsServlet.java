@@ -31,7 +31,11 @@ public final class MetricsServlet extends HttpServlet {
         resp.getWriter().println("connected_clients " + runtime.broadcaster().connectedClients());
         resp.getWriter().println("orders_received " + runtime.ordersReceived());
         resp.getWriter().println("cancels_received " + runtime.cancelsReceived());
+        resp.getWriter().println("amends_received " + runtime.amendsReceived());
+        resp.getWriter().println("mass_cancels_received " + runtime.massCancelsReceived());
+        resp.getWriter().println("quotes_received " + runtime.quotesReceived());
         resp.getWriter().println("trades_executed " + runtime.tradesExecuted());
         resp.getWriter().println("rejects " + runtime.rejects());
+        resp.getWriter().println("sequencer_pending " + runtime.sequencer().pending());
     }
 }
@@ -6,6 +6,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
+import tradingengine.domain.OrderType;
+import tradingengine.domain.TimeInForce;
 import tradingengine.domain.Trade;
 
 import java.io.IOException;
@@ -13,6 +15,8 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * POST /api/order
@@ -33,6 +37,11 @@ public final class OrderApiServlet extends HttpServlet {
         public String side;     // BUY / SELL
         public long price;
         public long quantity;
+        public String owner;    // optional client id, scopes mass cancel / mass quote
+        public String timeInForce; // optional GTC (default) / IOC / FOK / GTT
+        public String expireAt;    // ISO-8601 instant, makes the order GTT
+        public long stopPrice;     // optional trigger price, makes it a stop order
+        public String type;        // optional LIMIT (default) / MARKET; a MARKET price is its protection limit
     }
 
     @Override
@@ -52,11 +61,19 @@ public final class OrderApiServlet extends HttpServlet {
 
             OrderSide side = OrderSide.valueOf(body.side.trim().toUpperCase(Locale.ROOT));
 
-            // Timestamp included so order creation is explicit (useful for auditing later).
-            Order order = new Order(side, body.price, body.quantity, Instant.now());
+            // Provisional timestamp: the engine stamps the order with its own time when it applies it.
+            Order order = Order.withEngineAssignedId(side, body.price, body.quantity, Instant.now());
+            if (body.owner != null) {
+                order.assignOwner(body.owner.trim());
+            }
+            if (body.stopPrice != 0) {
+                order.assignStopPrice(body.stopPrice);
+            }
+            applyOrderType(order, body.type);
+            applyTimeInForce(order, body.timeInForce, body.expireAt);
 
             runtime.incOrdersReceived();
-            List<Trade> trades = runtime.engine().submit(order);
+            List<Trade> trades = runtime.call(engine -> engine.submit(order));
             runtime.addTradesExecuted(trades.size());
 
             resp.setStatus(200);
@@ -64,8 +81,18 @@ public final class OrderApiServlet extends HttpServlet {
             MAPPER.writeValue(resp.getOutputStream(), Map.of(
                     "accepted", true,
                     "orderId", order.getId(),
+                    "status", order.getStatus().name(),
                     "trades", trades.size()
             ));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // Matching thread is saturated: shed load instead of queuing without bound.
+            runtime.incRejects();
+            resp.setStatus(503);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("accepted", false, "error", "engine busy, retry later"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resp.setStatus(503);
         } catch (Exception e) {
             runtime.incRejects();
             resp.setStatus(400);
@@ -76,4 +103,30 @@ public final class OrderApiServlet extends HttpServlet {
             ));
         }
     }
+
+    /**
+     * Applies the optional type request field to a new order.
+     */
+    static void applyOrderType(Order order, String type) {
+        if (type != null && OrderType.valueOf(type.trim().toUpperCase(Locale.ROOT)) == OrderType.MARKET) {
+            order.assignMarket();
+        }
+    }
+
+    /**
+     * Applies the optional timeInForce / expireAt request fields to a new order. An expiry
+     * makes the order GTT; GTT without an expiry, or an expiry on another time in force, is
+     * rejected.
+     */
+    static void applyTimeInForce(Order order, String timeInForce, String expireAt) {
+        TimeInForce tif = timeInForce == null ? null : TimeInForce.valueOf(timeInForce.trim().toUpperCase(Locale.ROOT));
+        if (expireAt != null) {
+            if (tif != null && tif != TimeInForce.GTT) {
+                throw new IllegalArgumentException("expireAt only applies to GTT orders");
+            }
+            order.assignGoodTillTime(Instant.parse(expireAt.trim()));
+        } else if (tif != null) {
+            order.assignTimeInForce(tif);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.book.TopOfBook;
+
+import java.io.IOException;
+
+/**
+ * GET /api/book/top
+ *
+ * Best bid and ask with their size and order count.
+ *
+ * Reads the top of book the matching thread last published, so it never queues behind
+ * commands and never touches the live book. An empty side is returned as {@code null}.
+ */
+public final class TopOfBookServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private final EngineRuntime runtime;
+
+    public TopOfBookServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    record Quote(long price, long qty, int count) {}
+
+    record TopSnapshot(long sequence, Quote bid, Quote ask) {}
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        TopOfBook top = runtime.engine().topOfBook();
+        TopSnapshot snapshot = new TopSnapshot(
+                top.sequence(),
+                top.hasBid() ? new Quote(top.bidPrice(), top.bidQty(), top.bidCount()) : null,
+                top.hasAsk() ? new Quote(top.askPrice(), top.askQty(), top.askCount()) : null
+        );
+
+        resp.setStatus(200);
+        resp.setContentType("application/json; charset=utf-8");
+        MAPPER.writeValue(resp.getOutputStream(), snapshot);
+    }
+}
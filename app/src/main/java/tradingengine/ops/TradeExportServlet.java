@@ -0,0 +1,115 @@
+package tradingengine.ops;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tradingengine.domain.Trade;
+import tradingengine.persistence.FileTradeStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * GET /api/trades/export?after=0&limit=10000&format=ndjson
+ *
+ * Cursor-based full trade export for reconciliation.
+ *
+ * <p>Trades are streamed straight from {@code trades.csv} in chunks, so memory use does
+ * not grow with the size of the history. {@code after} is the last trade sequence the client
+ * has already seen (0 = from the start); the response header {@code X-Next-After} is the
+ * cursor for the next call. {@code limit} is optional (default: everything after the cursor).
+ * {@code format} is {@code ndjson} (default) or {@code csv}.
+ */
+public final class TradeExportServlet extends HttpServlet {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private final EngineRuntime runtime;
+
+    public TradeExportServlet(EngineRuntime runtime) {
+        this.runtime = runtime;
+    }
+
+    record ExportedTrade(long seq, String buyOrderId, String sellOrderId, long price, long qty, String timestamp) {}
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        long after;
+        int limit;
+        try {
+            after = parseNonNegative(req.getParameter("after"), 0L);
+            limit = (int) Math.min(Integer.MAX_VALUE, parseNonNegative(req.getParameter("limit"), Integer.MAX_VALUE));
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(400);
+            resp.setContentType("application/json; charset=utf-8");
+            MAPPER.writeValue(resp.getOutputStream(), Map.of("ok", false, "error", e.getMessage()));
+            return;
+        }
+        boolean csv = "csv".equalsIgnoreCase(req.getParameter("format"));
+
+        FileTradeStore store = runtime.engine().getTradeStore();
+
+        // The store only grows at the end while serving, so the window can be fixed before streaming.
+        int count = Math.min(limit, store.countAfter(after));
+
+        resp.setStatus(200);
+        resp.setContentType(csv ? "text/csv; charset=utf-8" : "application/x-ndjson; charset=utf-8");
+        resp.setHeader("X-Next-After", Long.toString(store.cursorAfter(after, count)));
+
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE
+        );
+        if (csv) {
+            out.write("seq,buyOrderId,sellOrderId,price,qty,timestamp\n");
+        }
+        store.forEachAfter(after, count, (seq, trade) -> {
+            if (csv) {
+                writeCsv(out, seq, trade);
+            } else {
+                out.write(MAPPER.writeValueAsString(toExported(seq, trade)));
+                out.write('\n');
+            }
+        });
+        out.flush();
+    }
+
+    private static ExportedTrade toExported(long seq, Trade t) {
+        return new ExportedTrade(seq, t.buyOrderId(), t.sellOrderId(), t.price(), t.quantity(), t.timestamp().toString());
+    }
+
+    private static void writeCsv(Writer out, long seq, Trade t) throws IOException {
+        out.write(Long.toString(seq));
+        out.write(',');
+        out.write(t.buyOrderId());
+        out.write(',');
+        out.write(t.sellOrderId());
+        out.write(',');
+        out.write(Long.toString(t.price()));
+        out.write(',');
+        out.write(Long.toString(t.quantity()));
+        out.write(',');
+        out.write(t.timestamp().toString());
+        out.write('\n');
+    }
+
+    private static long parseNonNegative(String raw, long defaultValue) {
+        if (raw == null || raw.isBlank()) {
+            return defaultValue;
+        }
+        long value;
+        try {
+            value = Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number: " + raw);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + raw);
+        }
+        return value;
+    }
+}
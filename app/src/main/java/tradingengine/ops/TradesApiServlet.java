@@ -15,6 +15,11 @@ import java.util.List;
  *
  * JSON snapshot for UI state synchronization.
  * Optional fallback: ?format=text for human-readable dump.
+ *
+ * GET /api/trades?orderId=...
+ *
+ * Returns every fill of one order (limit is ignored), served from the engine's
+ * order-id index instead of the full trade history.
  */
 public final class TradesApiServlet extends HttpServlet {
     private static final ObjectMapper MAPPER = new ObjectMapper();
@@ -24,7 +29,7 @@ public final class TradesApiServlet extends HttpServlet {
         this.runtime = runtime;
     }
 
-    record TradeSnapshot(String buyOrderId, String sellOrderId, long price, long qty, String timestamp, String info) {}
+    record TradeSnapshot(long seq, String buyOrderId, String sellOrderId, long price, long qty, String timestamp, String info) {}
     record TradesSnapshot(List<TradeSnapshot> trades) {}
 
     @Override
@@ -36,8 +41,16 @@ public final class TradesApiServlet extends HttpServlet {
             catch (NumberFormatException ignored) {}
         }
 
-        List<Trade> all = runtime.engine().tradeHistory();
-        int from = Math.max(0, all.size() - limit);
+        List<Trade> all;
+        int from;
+        String orderId = req.getParameter("orderId");
+        if (orderId != null && !orderId.isBlank()) {
+            all = runtime.engine().tradesForOrder(orderId.trim());
+            from = 0;
+        } else {
+            all = runtime.engine().tradeHistory();
+            from = Math.max(0, all.size() - limit);
+        }
 
         String format = req.getParameter("format");
         if ("text".equalsIgnoreCase(format)) {
@@ -53,8 +66,8 @@ public final class TradesApiServlet extends HttpServlet {
                 resp.getWriter().println(
                         t.timestamp() + " price=" + t.price() +
                                 " qty=" + t.quantity() +
-                                " buy=" + t.buyOrderId().substring(0, 8) +
-                                " sell=" + t.sellOrderId().substring(0, 8)
+                                " buy=" + shortId(t.buyOrderId()) +
+                                " sell=" + shortId(t.sellOrderId())
                 );
             }
             return;
@@ -71,6 +84,7 @@ public final class TradesApiServlet extends HttpServlet {
         for (int i = trades.size() - 1; i >= 0; i--) {
             Trade t = trades.get(i);
             snapshots.add(new TradeSnapshot(
+                    t.sequence(),
                     t.buyOrderId(),
                     t.sellOrderId(),
                     t.price(),
@@ -1,5 +1,6 @@
 package tradingengine.persistence;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -19,7 +20,7 @@ import java.util.List;
 import java.util.Objects;
 
 /**
- * Append-only write-ahead log of accepted commands (ORDER/CANCEL)
+ * Append-only write-ahead log of accepted commands (ORDER/CANCEL/AMEND/MASS_CANCEL/MASS_QUOTE/EXPIRE)
  *
  * Stored as JSON Lines so each record is independently appendable and replayable
  */
@@ -29,12 +30,12 @@ public final class CommandLog {
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-    public enum Type { ORDER, CANCEL }
+    public enum Type { ORDER, CANCEL, AMEND, MASS_CANCEL, MASS_QUOTE, EXPIRE }
 
     public static final class Record {
         public Type type;
 
-        // ORDER fields
+        // ORDER fields (AMEND reuses orderId, price and quantity for the new values)
         public String orderId;
         public String side;
         public long price;
@@ -44,6 +45,36 @@ public final class CommandLog {
         // CANCEL fields
         public String cancelOrderId;
 
+        // MASS_CANCEL fields (side is reused; null clears both sides). Left out of other
+        // records so existing lines and their hashes are unchanged.
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        public long minPrice;
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        public long maxPrice;
+
+        // Owning client of an ORDER, or the client a MASS_CANCEL/MASS_QUOTE is scoped to.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String owner;
+
+        // ORDER time in force; omitted for GTC.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String timeInForce;
+        // ORDER expiry for GTT.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Instant expireAt;
+        // ORDER trigger price of a stop order.
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        public long stopPrice;
+        // ORDER type; omitted for LIMIT.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String orderType;
+
+        // MASS_QUOTE ladders as [price, quantity] pairs, best first.
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public List<long[]> bids;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public List<long[]> asks;
+
         // Hash-chain fields for tamper detection.
         public String prevHash;
         public String hash;
@@ -51,64 +82,141 @@ public final class CommandLog {
         public Record() {
             // Required by Jackson
         }
+
+        public static Record order(String orderId, String side, long price, long quantity, Instant ts) {
+            Record record = new Record();
+            record.type = Type.ORDER;
+            record.orderId = orderId;
+            record.side = side;
+            record.price = price;
+            record.quantity = quantity;
+            record.timestamp = ts;
+            return record;
+        }
+
+        public static Record amend(String orderId, long newPrice, long newQuantity, Instant ts) {
+            Record record = new Record();
+            record.type = Type.AMEND;
+            record.orderId = orderId;
+            record.price = newPrice;
+            record.quantity = newQuantity;
+            record.timestamp = ts;
+            return record;
+        }
+
+        public static Record order(String orderId, String side, long price, long quantity, Instant ts, String owner) {
+            Record record = order(orderId, side, price, quantity, ts);
+            record.owner = owner;
+            return record;
+        }
+
+        public static Record massCancel(String side, long minPrice, long maxPrice, String owner, Instant ts) {
+            Record record = new Record();
+            record.type = Type.MASS_CANCEL;
+            record.side = side;
+            record.minPrice = minPrice;
+            record.maxPrice = maxPrice;
+            record.owner = owner;
+            record.timestamp = ts;
+            return record;
+        }
+
+        public static Record massQuote(String owner, List<long[]> bids, List<long[]> asks, Instant ts) {
+            Record record = new Record();
+            record.type = Type.MASS_QUOTE;
+            record.owner = owner;
+            record.bids = bids;
+            record.asks = asks;
+            record.timestamp = ts;
+            return record;
+        }
+
+        /**
+         * Good-till-time orders expired at {@code ts}; replay expires everything due by then.
+         */
+        public static Record expire(Instant ts) {
+            Record record = new Record();
+            record.type = Type.EXPIRE;
+            record.timestamp = ts;
+            return record;
+        }
+
+        public static Record cancel(String cancelOrderId, Instant ts) {
+            Record record = new Record();
+            record.type = Type.CANCEL;
+            record.cancelOrderId = cancelOrderId;
+            record.timestamp = ts;
+            return record;
+        }
     }
 
     private final Path path;
 
+    // Tail of the hash chain as of the last append, valid while the file is still lastHashFileSize
+    // bytes long. Saves re-reading the whole log on every append; another instance appending to
+    // the same path changes the size and forces a re-read.
+    private String lastHash;
+    private long lastHashFileSize = -1L;
+
     public CommandLog(Path path) {
         this.path = Objects.requireNonNull(path, "path must not be null");
     }
 
     public synchronized void appendOrder(String orderId, String side, long price, long quantity, Instant ts) {
-        Record record = new Record();
-        record.type = Type.ORDER;
-        record.orderId = orderId;
-        record.side = side;
-        record.price = price;
-        record.quantity = quantity;
-        record.timestamp = ts;
-        append(record);
+        appendBatch(List.of(Record.order(orderId, side, price, quantity, ts)));
     }
 
     public synchronized void appendCancel(String cancelOrderId, Instant ts) {
-        Record record = new Record();
-        record.type = Type.CANCEL;
-        record.cancelOrderId = cancelOrderId;
-        record.timestamp = ts;
-        append(record);
+        appendBatch(List.of(Record.cancel(cancelOrderId, ts)));
+    }
+
+    public synchronized void appendMassCancel(String side, long minPrice, long maxPrice, String owner, Instant ts) {
+        appendBatch(List.of(Record.massCancel(side, minPrice, maxPrice, owner, ts)));
+    }
+
+    public synchronized void appendMassQuote(String owner, List<long[]> bids, List<long[]> asks, Instant ts) {
+        appendBatch(List.of(Record.massQuote(owner, bids, asks, ts)));
+    }
+
+    public synchronized void appendExpire(Instant ts) {
+        appendBatch(List.of(Record.expire(ts)));
     }
 
-    private void append(Record r) {
+    public synchronized void appendAmend(String orderId, long newPrice, long newQuantity, Instant ts) {
+        appendBatch(List.of(Record.amend(orderId, newPrice, newQuantity, ts)));
+    }
+
+    /**
+     * Appends several records as one write followed by one fsync.
+     *
+     * <p>Records are still chained and stored one per line, so replay and verification
+     * treat them exactly like individually appended records.
+     *
+     * @param records records to append, in order; their hash fields are filled in
+     */
+    public synchronized void appendBatch(List<Record> records) {
+        Objects.requireNonNull(records, "records must not be null");
+        if (records.isEmpty()) {
+            return;
+        }
         try {
             Files.createDirectories(path.getParent());
 
-            // Previous hash = last record hash, or GENESIS if log is empty.
-            String prev = "GENESIS";
-            if (Files.exists(path)) {
-                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
-                for (int i = lines.size() - 1; i >= 0; i--) {
-                    String ln = lines.get(i);
-                    if (ln == null || ln.isBlank()) {
-                        continue;
-                    }
-                    // Jackson APIs are not null-annotated; suppress Eclipse's @NonNull generic inference warning.
-                    @SuppressWarnings("null")
-                    Record last = MAPPER.readValue(ln, Record.class);
-                    if (last.hash != null && !last.hash.isBlank()) {
-                        prev = last.hash;
-                    }
-                    break;
-                }
-            }
+            long size = Files.exists(path) ? Files.size(path) : 0L;
+            String prev = (size == lastHashFileSize) ? lastHash : readTailHash();
 
-            r.prevHash = prev;
+            StringBuilder lines = new StringBuilder(records.size() * 256);
+            for (Record r : records) {
+                r.prevHash = prev;
 
-            // Hash = SHA256(prevHash + "|" + payload).
-            String payload = payloadForHash(r);
-            r.hash = sha256Hex(prev + "|" + payload);
+                // Hash = SHA256(prevHash + "|" + payload).
+                String payload = payloadForHash(r);
+                r.hash = sha256Hex(prev + "|" + payload);
+                prev = r.hash;
 
-            String line = MAPPER.writeValueAsString(r);
-            byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                lines.append(MAPPER.writeValueAsString(r)).append(System.lineSeparator());
+            }
+            byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
 
             try (FileChannel channel = FileChannel.open(
                     path,
@@ -122,11 +230,40 @@ public final class CommandLog {
                 }
                 channel.force(true);
             }
+
+            lastHash = prev;
+            lastHashFileSize = size + bytes.length;
         } catch (IOException e) {
+            // The file may hold a partial write now; re-read the tail next time.
+            lastHashFileSize = -1L;
             throw new RuntimeException("Failed to append to command log: " + path, e);
         }
     }
 
+    /**
+     * @return hash of the last record in the file, or GENESIS if the log is empty
+     */
+    private String readTailHash() throws IOException {
+        String prev = "GENESIS";
+        if (Files.exists(path)) {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                String ln = lines.get(i);
+                if (ln == null || ln.isBlank()) {
+                    continue;
+                }
+                // Jackson APIs are not null-annotated; suppress Eclipse's @NonNull generic inference warning.
+                @SuppressWarnings("null")
+                Record last = MAPPER.readValue(ln, Record.class);
+                if (last.hash != null && !last.hash.isBlank()) {
+                    prev = last.hash;
+                }
+                break;
+            }
+        }
+        return prev;
+    }
+
     public List<Record> readAll() {
         try {
             if (!Files.exists(path)) {
@@ -188,7 +325,7 @@ public final class CommandLog {
      * Use a stable string format for hashing (avoid JSON ordering issues).
      */
     private static String payloadForHash(Record r) {
-        return String.join("|",
+        String payload = String.join("|",
                 "type=" + (r.type == null ? "" : r.type.name()),
                 "orderId=" + safe(r.orderId),
                 "side=" + safe(r.side),
@@ -197,6 +334,41 @@ public final class CommandLog {
                 "cancelOrderId=" + safe(r.cancelOrderId),
                 "timestamp=" + (r.timestamp == null ? "" : r.timestamp.toString())
         );
+        if (r.type == Type.MASS_CANCEL) {
+            payload += "|minPrice=" + r.minPrice + "|maxPrice=" + r.maxPrice;
+        }
+        if (r.owner != null) {
+            payload += "|owner=" + r.owner;
+        }
+        if (r.timeInForce != null) {
+            payload += "|timeInForce=" + r.timeInForce;
+        }
+        if (r.expireAt != null) {
+            payload += "|expireAt=" + r.expireAt;
+        }
+        if (r.stopPrice != 0) {
+            payload += "|stopPrice=" + r.stopPrice;
+        }
+        if (r.orderType != null) {
+            payload += "|orderType=" + r.orderType;
+        }
+        if (r.type == Type.MASS_QUOTE) {
+            payload += "|bids=" + ladderForHash(r.bids) + "|asks=" + ladderForHash(r.asks);
+        }
+        return payload;
+    }
+
+    private static String ladderForHash(List<long[]> ladder) {
+        StringBuilder sb = new StringBuilder();
+        if (ladder != null) {
+            for (long[] level : ladder) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(level[0]).append('x').append(level[1]);
+            }
+        }
+        return sb.toString();
     }
 
     private static String safe(String s) {
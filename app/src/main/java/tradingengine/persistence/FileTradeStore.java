@@ -2,27 +2,91 @@ package tradingengine.persistence;
 
 import tradingengine.domain.Trade;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 
 public class FileTradeStore {
 
+    /**
+     * Receives trades streamed from the store.
+     */
+    @FunctionalInterface
+    public interface TradeVisitor {
+        /**
+         * @param sequence the trade's execution sequence, usable as an export cursor
+         * @param trade the stored trade
+         */
+        void visit(long sequence, Trade trade) throws IOException;
+    }
+
     private final Path file;
+    private final TradeCsvCodec codec = new TradeCsvCodec(); // guarded by this
+
+    /*
+     * Byte offset and execution sequence of every trade line, indexed by trade position
+     * (0-based line ordinal). Built lazily from the file and extended on each append, so
+     * positional and by-sequence reads can seek straight to a trade instead of scanning
+     * trades.csv. Sequences are strictly increasing, which makes them binary-searchable.
+     */
+    private long[] lineOffsets = new long[1024];
+    private long[] lineSequences = new long[1024];
+    private int lineCount;
+    private long indexedLength = -1L; // -1 = file not indexed yet
 
     public FileTradeStore(Path file) {
         this.file = Objects.requireNonNull(file, "file must not be null");
     }
 
-    public void save(Trade trade) {
+    /**
+     * Appends a trade to the store.
+     *
+     * <p>Saving is idempotent by sequence: a trade whose sequence is already persisted
+     * (e.g. replayed over an existing trades.csv) is not written again. Trades without a
+     * sequence are numbered after the last persisted one.
+     *
+     * @param trade the trade to persist
+     * @return the position of the trade in the store (0-based)
+     * @throws IllegalArgumentException if the sequence is behind the store but not present in it
+     */
+    public synchronized int save(Trade trade) {
         Objects.requireNonNull(trade, "trade must not be null");
-        appendToFile(trade);
+        // Hot path: stat the file only on first use. From then on this store is its writer and
+        // tracks the end offset itself.
+        if (indexedLength < 0) {
+            ensureIndexed();
+        }
+
+        long last = lastSequenceIndexed();
+        if (trade.sequence() == 0L) {
+            return appendToFile(trade.withSequence(last + 1));
+        }
+        if (trade.sequence() > last) {
+            return appendToFile(trade);
+        }
+        int existing = firstPositionAfter(trade.sequence() - 1);
+        if (existing < lineCount && lineSequences[existing] == trade.sequence()) {
+            return existing;
+        }
+        throw new IllegalArgumentException(
+                "Trade sequence " + trade.sequence() + " is behind the store (last " + last + ")");
+    }
+
+    /**
+     * @return the highest persisted trade sequence, 0 if the store is empty
+     */
+    public synchronized long lastSequence() {
+        ensureIndexed();
+        return lastSequenceIndexed();
     }
 
     public List<Trade> findAll() {
@@ -30,19 +94,179 @@ public class FileTradeStore {
             return List.of();
         }
 
-        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
-            return lines.filter(line -> !line.isBlank())
-                    .map(this::deserialize)
-                    .toList();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Trade> trades = new ArrayList<>();
+            TradeLineReader reader = new TradeLineReader(channel, 0L);
+            while (reader.nextLine()) {
+                if (!reader.isBlankLine()) {
+                    trades.add(TradeCsvCodec.decode(reader.line(), 0, reader.lineLength()));
+                }
+            }
+            return List.copyOf(trades);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load trades", e);
         }
     }
 
+    /**
+     * Loads the trades stored at the given positions, in the order requested.
+     *
+     * <p>Each trade is read directly at its byte offset, so the cost is proportional
+     * to the number of positions rather than the size of the file.
+     *
+     * @param positions trade positions as returned by {@link #save(Trade)}
+     * @return the trades at those positions
+     * @throws IllegalArgumentException if a position is out of range
+     */
+    public List<Trade> findByPositions(List<Integer> positions) {
+        Objects.requireNonNull(positions, "positions must not be null");
+        int[] array = new int[positions.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = positions.get(i);
+        }
+        return findByPositions(array, array.length);
+    }
+
+    /**
+     * Loads the trades stored at the first {@code count} positions of {@code positions}, in
+     * the order given.
+     *
+     * @see #findByPositions(List)
+     */
+    public List<Trade> findByPositions(int[] positions, int count) {
+        Objects.requireNonNull(positions, "positions must not be null");
+        if (count < 0 || count > positions.length) {
+            throw new IllegalArgumentException("count out of range: " + count);
+        }
+        if (count == 0) {
+            return List.of();
+        }
+
+        // Resolve byte ranges under the lock, then read without blocking writers.
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        synchronized (this) {
+            ensureIndexed();
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                if (position < 0 || position >= lineCount) {
+                    throw new IllegalArgumentException("Trade position out of range: " + position);
+                }
+                starts[i] = lineOffsets[position];
+                ends[i] = (position + 1 < lineCount) ? lineOffsets[position + 1] : indexedLength;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Trade> trades = new ArrayList<>(count);
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            for (int i = 0; i < starts.length; i++) {
+                int length = (int) (ends[i] - starts[i]);
+                if (buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length);
+                }
+                buffer.clear().limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, starts[i] + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                trades.add(TradeCsvCodec.decode(buffer.array(), 0, buffer.position()));
+            }
+            return trades;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load trades", e);
+        }
+    }
+
+    /**
+     * Streams trades that come after a cursor, reading the file sequentially from the
+     * cursor's byte offset. Memory use is constant regardless of how many trades are visited.
+     *
+     * <p>Only trades present when the call starts are visited; concurrent appends are
+     * picked up by the next call with the returned cursor.
+     *
+     * <p>The starting line is found by binary search over the sequence index, so resuming
+     * from a cursor costs O(log n) regardless of how far into the history it points.
+     *
+     * @param afterSequence cursor: visit trades with sequence greater than this (0 = from the start)
+     * @param maxTrades maximum number of trades to visit
+     * @param visitor receives each trade in store order
+     * @return number of trades visited
+     * @throws IOException if reading the file or the visitor fails
+     */
+    public int forEachAfter(long afterSequence, int maxTrades, TradeVisitor visitor) throws IOException {
+        Objects.requireNonNull(visitor, "visitor must not be null");
+        if (afterSequence < 0) {
+            throw new IllegalArgumentException("afterSequence must not be negative");
+        }
+        if (maxTrades < 0) {
+            throw new IllegalArgumentException("maxTrades must not be negative");
+        }
+
+        long[] sequences;
+        long start;
+        int first;
+        int available;
+        synchronized (this) {
+            ensureIndexed();
+            first = firstPositionAfter(afterSequence);
+            if (first >= lineCount || maxTrades == 0) {
+                return 0;
+            }
+            available = Math.min(maxTrades, lineCount - first);
+            start = lineOffsets[first];
+            sequences = Arrays.copyOfRange(lineSequences, first, first + available);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            TradeLineReader reader = new TradeLineReader(channel, start);
+            int visited = 0;
+            while (visited < available && reader.nextLine()) {
+                if (reader.isBlankLine()) {
+                    continue;
+                }
+                visitor.visit(sequences[visited], TradeCsvCodec.decode(reader.line(), 0, reader.lineLength()));
+                visited++;
+            }
+            return visited;
+        }
+    }
+
+    /**
+     * @param afterSequence cursor (0 = from the start)
+     * @return number of stored trades with a sequence greater than the cursor
+     */
+    public synchronized int countAfter(long afterSequence) {
+        ensureIndexed();
+        return lineCount - firstPositionAfter(afterSequence);
+    }
+
+    /**
+     * Returns the cursor a reader ends on after visiting up to {@code maxTrades} trades
+     * past {@code afterSequence}, i.e. the sequence of the last trade in that window.
+     *
+     * @return the window's last sequence, or {@code afterSequence} if the window is empty
+     */
+    public synchronized long cursorAfter(long afterSequence, int maxTrades) {
+        ensureIndexed();
+        int first = firstPositionAfter(afterSequence);
+        int available = Math.min(maxTrades, lineCount - first);
+        return available <= 0 ? afterSequence : lineSequences[first + available - 1];
+    }
+
+    /**
+     * @return number of trades currently stored
+     */
+    public synchronized int count() {
+        ensureIndexed();
+        return lineCount;
+    }
+
     /**
      * Truncates the trade file so it can be rebuilt deterministically via replay.
      */
-    public void clear() {
+    public synchronized void clear() {
         try {
             Path parent = file.getParent();
             if (parent != null) {
@@ -55,6 +279,8 @@ public class FileTradeStore {
                     StandardOpenOption.CREATE,
                     StandardOpenOption.TRUNCATE_EXISTING
             );
+            lineCount = 0;
+            indexedLength = 0L;
         } catch (IOException e) {
             throw new RuntimeException("Failed to clear trades file: " + file, e);
         }
@@ -62,48 +288,99 @@ public class FileTradeStore {
 
     /** Appends a trade to the CSV file.
      * @param trade the trade to append
+     * @return the position of the appended trade
      */
-    private void appendToFile(Trade trade) {
+    private int appendToFile(Trade trade) {
         try {
             Path parent = file.getParent();
-            if (parent != null) {
+            if (indexedLength == 0 && parent != null) {
+                // Only an empty (possibly missing) file may lack its directory.
                 Files.createDirectories(parent);
             }
-            try (BufferedWriter writer = Files.newBufferedWriter(
+            int length = codec.encode(trade);
+            try (FileChannel channel = FileChannel.open(
                     file,
-                    StandardCharsets.UTF_8,
                     StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
                     StandardOpenOption.APPEND
             )) {
-                writer.write(serialize(trade));
-                writer.newLine();
+                ByteBuffer bytes = ByteBuffer.wrap(codec.buffer(), 0, length);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
             }
+
+            int position = lineCount;
+            recordLine(indexedLength, trade.sequence());
+            indexedLength += length;
+            return position;
         } catch (IOException e) {
             throw new RuntimeException("Failed to persist trade", e);
         }
     }
 
-    private String serialize(Trade trade) {
-        return String.join(",",
-                trade.buyOrderId(),
-                trade.sellOrderId(),
-                Long.toString(trade.price()),
-                Long.toString(trade.quantity()),
-                trade.timestamp().toString()
-        );
+    /**
+     * (Re)builds the offset index if the file changed outside this instance
+     * (e.g. another store cleared or appended to the same path).
+     */
+    private void ensureIndexed() {
+        try {
+            long size = Files.exists(file) ? Files.size(file) : 0L;
+            if (size == indexedLength) {
+                return;
+            }
+
+            lineCount = 0;
+            if (size > 0) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    TradeLineReader reader = new TradeLineReader(channel, 0L);
+                    TradeCsvCodec.Fields fields = new TradeCsvCodec.Fields();
+                    while (reader.nextLine()) {
+                        if (!reader.isBlankLine()) {
+                            TradeCsvCodec.decodeFields(reader.line(), 0, reader.lineLength(), fields);
+                            // Lines written before sequences existed are numbered by position.
+                            long sequence = fields.sequence() > 0 ? fields.sequence() : lastSequenceIndexed() + 1;
+                            recordLine(reader.lineStart(), sequence);
+                        }
+                    }
+                }
+            }
+            indexedLength = size;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to index trades file: " + file, e);
+        }
+    }
+
+    private void recordLine(long offset, long sequence) {
+        if (lineCount == lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineCount * 2);
+            lineSequences = Arrays.copyOf(lineSequences, lineCount * 2);
+        }
+        lineOffsets[lineCount] = offset;
+        lineSequences[lineCount] = sequence;
+        lineCount++;
+    }
+
+    private long lastSequenceIndexed() {
+        return lineCount == 0 ? 0L : lineSequences[lineCount - 1];
     }
 
-    private Trade deserialize(String line) {
-        String[] parts = line.split(",", -1);
-        if (parts.length != 5) {
-            throw new IllegalArgumentException("Invalid trade record: " + line);
+    /**
+     * @return position of the first trade with a sequence greater than {@code sequence},
+     *         or {@code lineCount} if there is none
+     */
+    private int firstPositionAfter(long sequence) {
+        int low = 0;
+        int high = lineCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lineSequences[mid] <= sequence) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
-        return new Trade(
-                parts[0],
-                parts[1],
-                Long.parseLong(parts[2]),
-                Long.parseLong(parts[3]),
-                java.time.Instant.parse(parts[4])
-        );
+        return low;
     }
+
 }
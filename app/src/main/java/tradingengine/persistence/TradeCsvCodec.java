@@ -0,0 +1,415 @@
+package tradingengine.persistence;
+
+import tradingengine.domain.Trade;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Byte-level codec for {@code trades.csv} lines.
+ *
+ * <p>Line format: {@code [sequence,]buyOrderId,sellOrderId,price,quantity,timestamp}, where the
+ * timestamp is written exactly like {@link Instant#toString()}. The sequence column is only
+ * written for trades that have one, so lines from before sequences existed still decode
+ * (with sequence 0). Encoding goes into a reusable buffer with
+ * hand-rolled number and ISO-8601 formatting. Decoding works on raw bytes without regex or
+ * {@code String.split}, and {@link #decodeFields} can read a line without allocating at all.
+ *
+ * <p>Instances are not thread-safe; each writer should own its codec.
+ */
+public final class TradeCsvCodec {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * Mutable view of one decoded line. Order ids are left as byte ranges so callers that
+     * only need numbers (e.g. bulk aggregation) never materialize strings.
+     */
+    public static final class Fields {
+        int buyStart;
+        int buyEnd;
+        int sellStart;
+        int sellEnd;
+        long price;
+        long quantity;
+        long epochSecond;
+        int nanos;
+        long sequence;
+
+        public long price() {
+            return price;
+        }
+
+        public long quantity() {
+            return quantity;
+        }
+
+        public long epochSecond() {
+            return epochSecond;
+        }
+
+        public int nanos() {
+            return nanos;
+        }
+
+        public long epochMillis() {
+            return epochSecond * 1000L + nanos / 1_000_000;
+        }
+
+        /** @return execution sequence, 0 if the line has none */
+        public long sequence() {
+            return sequence;
+        }
+    }
+
+    private byte[] buffer = new byte[128];
+    private int length;
+
+    /**
+     * Encodes a trade followed by {@code '\n'} into this codec's buffer.
+     *
+     * @param trade the trade to encode
+     * @return number of bytes written to {@link #buffer()}
+     */
+    public int encode(Trade trade) {
+        Objects.requireNonNull(trade, "trade must not be null");
+        length = 0;
+        if (trade.sequence() > 0) {
+            writeLong(trade.sequence());
+            writeByte(',');
+        }
+        writeAscii(trade.buyOrderId());
+        writeByte(',');
+        writeAscii(trade.sellOrderId());
+        writeByte(',');
+        writeLong(trade.price());
+        writeByte(',');
+        writeLong(trade.quantity());
+        writeByte(',');
+        writeInstant(trade.timestamp());
+        writeByte('\n');
+        return length;
+    }
+
+    /**
+     * @return the buffer holding the last encoded line; valid up to the length returned by {@link #encode}
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Decodes one line into a {@link Trade}.
+     *
+     * @param line buffer holding the line (without the trailing newline)
+     * @param offset start of the line
+     * @param length length of the line
+     * @return the decoded trade
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static Trade decode(byte[] line, int offset, int length) {
+        Fields fields = new Fields();
+        decodeFields(line, offset, length, fields);
+        return new Trade(
+                new String(line, fields.buyStart, fields.buyEnd - fields.buyStart, StandardCharsets.UTF_8),
+                new String(line, fields.sellStart, fields.sellEnd - fields.sellStart, StandardCharsets.UTF_8),
+                fields.price,
+                fields.quantity,
+                Instant.ofEpochSecond(fields.epochSecond, fields.nanos),
+                fields.sequence
+        );
+    }
+
+    /**
+     * Decodes one line into a reusable {@link Fields} view without allocating.
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static void decodeFields(byte[] line, int offset, int length, Fields out) {
+        int end = offset + length;
+        // Tolerate CRLF files and stray trailing whitespace.
+        while (end > offset && line[end - 1] <= ' ') {
+            end--;
+        }
+
+        int c1 = indexOfComma(line, offset, end);
+        int c2 = c1 < 0 ? -1 : indexOfComma(line, c1 + 1, end);
+        int c3 = c2 < 0 ? -1 : indexOfComma(line, c2 + 1, end);
+        int c4 = c3 < 0 ? -1 : indexOfComma(line, c3 + 1, end);
+        int c5 = c4 < 0 ? -1 : indexOfComma(line, c4 + 1, end);
+        if (c4 < 0 || (c5 >= 0 && indexOfComma(line, c5 + 1, end) >= 0)) {
+            throw invalid(line, offset, length);
+        }
+
+        if (c5 < 0) {
+            // Legacy line without a sequence column.
+            out.sequence = 0L;
+            decodeTradeFields(line, offset, c1, c2, c3, c4, end, out);
+        } else {
+            out.sequence = parseLong(line, offset, c1);
+            decodeTradeFields(line, c1 + 1, c2, c3, c4, c5, end, out);
+        }
+    }
+
+    private static void decodeTradeFields(byte[] line, int start, int c1, int c2, int c3, int c4, int end,
+                                          Fields out) {
+        out.buyStart = start;
+        out.buyEnd = c1;
+        out.sellStart = c1 + 1;
+        out.sellEnd = c2;
+        out.price = parseLong(line, c2 + 1, c3);
+        out.quantity = parseLong(line, c3 + 1, c4);
+        parseInstant(line, c4 + 1, end, out);
+    }
+
+    private static int indexOfComma(byte[] line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static IllegalArgumentException invalid(byte[] line, int offset, int length) {
+        return new IllegalArgumentException(
+                "Invalid trade record: " + new String(line, offset, length, StandardCharsets.UTF_8));
+    }
+
+    // ---------------------------------------------------------------------
+    // Encoding helpers
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void writeAscii(String s) {
+        int n = s.length();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // Rare non-ASCII id: fall back to a real UTF-8 encode.
+                length -= i;
+                writeBytes(s.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer[length++] = (byte) c;
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int pos = length + digits;
+        length = pos;
+        do {
+            buffer[--pos] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    /** Writes the same text as {@link Instant#toString()} for years 0000-9999. */
+    private void writeInstant(Instant instant) {
+        long epochSecond = instant.getEpochSecond();
+        int nanos = instant.getNano();
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil-from-days (proleptic Gregorian), see H. Hinnant's date algorithms.
+        long z = epochDay + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            writeAscii(instant.toString());
+            return;
+        }
+
+        ensureCapacity(30);
+        write4(year);
+        buffer[length++] = '-';
+        write2(month);
+        buffer[length++] = '-';
+        write2(day);
+        buffer[length++] = 'T';
+        write2(secondOfDay / 3600);
+        buffer[length++] = ':';
+        write2((secondOfDay / 60) % 60);
+        buffer[length++] = ':';
+        write2(secondOfDay % 60);
+        if (nanos != 0) {
+            buffer[length++] = '.';
+            // Same 3/6/9 digit grouping as DateTimeFormatter.ISO_INSTANT.
+            if (nanos % 1_000_000 == 0) {
+                writeFraction(nanos / 1_000_000, 3);
+            } else if (nanos % 1000 == 0) {
+                writeFraction(nanos / 1000, 6);
+            } else {
+                writeFraction(nanos, 9);
+            }
+        }
+        buffer[length++] = 'Z';
+    }
+
+    private void write4(long v) {
+        buffer[length++] = (byte) ('0' + v / 1000);
+        buffer[length++] = (byte) ('0' + (v / 100) % 10);
+        buffer[length++] = (byte) ('0' + (v / 10) % 10);
+        buffer[length++] = (byte) ('0' + v % 10);
+    }
+
+    private void write2(int v) {
+        buffer[length++] = (byte) ('0' + v / 10);
+        buffer[length++] = (byte) ('0' + v % 10);
+    }
+
+    private void writeFraction(int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    // ---------------------------------------------------------------------
+    // Decoding helpers
+
+    static long parseLong(byte[] b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && b[i] == '-') {
+            negative = true;
+            i++;
+        }
+        int digits = to - i;
+        if (digits <= 0 || digits > 18) {
+            // Empty, or long enough to risk overflow: let the JDK validate it.
+            return Long.parseLong(new String(b, from, to - from, StandardCharsets.US_ASCII));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                throw new NumberFormatException(
+                        "For input string: \"" + new String(b, from, to - from, StandardCharsets.US_ASCII) + "\"");
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm:ss[.f{1,9}]Z}; anything else goes through {@link Instant#parse}.
+     */
+    private static void parseInstant(byte[] b, int from, int to, Fields out) {
+        int len = to - from;
+        if (len < 20 || b[from + 4] != '-' || b[from + 7] != '-' || b[from + 10] != 'T'
+                || b[from + 13] != ':' || b[from + 16] != ':' || b[to - 1] != 'Z') {
+            parseInstantSlow(b, from, to, out);
+            return;
+        }
+        int year = digits(b, from, 4);
+        int month = digits(b, from + 5, 2);
+        int day = digits(b, from + 8, 2);
+        int hour = digits(b, from + 11, 2);
+        int minute = digits(b, from + 14, 2);
+        int second = digits(b, from + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            parseInstantSlow(b, from, to, out);
+            return;
+        }
+
+        int nanos = 0;
+        int fractionEnd = to - 1;
+        if (fractionEnd > from + 19) {
+            int fractionDigits = fractionEnd - (from + 20);
+            if (b[from + 19] != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                parseInstantSlow(b, from, to, out);
+                return;
+            }
+            int fraction = digits(b, from + 20, fractionDigits);
+            if (fraction < 0) {
+                parseInstantSlow(b, from, to, out);
+                return;
+            }
+            for (int i = fractionDigits; i < 9; i++) {
+                fraction *= 10;
+            }
+            nanos = fraction;
+        }
+
+        out.epochSecond = daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+        out.nanos = nanos;
+    }
+
+    private static void parseInstantSlow(byte[] b, int from, int to, Fields out) {
+        // Throws DateTimeParseException for malformed input, like the String-based path did.
+        Instant parsed = Instant.parse(new String(b, from, to - from, StandardCharsets.US_ASCII));
+        out.epochSecond = parsed.getEpochSecond();
+        out.nanos = parsed.getNano();
+    }
+
+    /** @return the decimal value of {@code count} digits, or -1 if any byte is not a digit */
+    private static int digits(byte[] b, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    private static long daysFromCivil(long year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400L);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
@@ -0,0 +1,113 @@
+package tradingengine.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reads {@code '\n'}-terminated lines from a file channel into a reusable byte buffer.
+ *
+ * <p>Uses positional reads only, so several readers can share one channel from different
+ * threads. Lines are exposed as raw bytes for {@link TradeCsvCodec}; nothing is decoded here.
+ */
+public final class TradeLineReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private long bufferStart;
+
+    private byte[] line = new byte[128];
+    private int lineLength;
+    private long lineStart;
+
+    /**
+     * @param channel channel to read from
+     * @param position byte offset of the first line to read
+     */
+    public TradeLineReader(FileChannel channel, long position) {
+        this.channel = Objects.requireNonNull(channel, "channel must not be null");
+        this.bufferStart = position;
+        buffer.limit(0);
+    }
+
+    /**
+     * @return byte offset of the next unread byte
+     */
+    public long position() {
+        return bufferStart + buffer.position();
+    }
+
+    /**
+     * Reads the next line (without its {@code '\n'}).
+     *
+     * @return {@code false} at end of file, {@code true} otherwise (the line may be blank)
+     */
+    public boolean nextLine() throws IOException {
+        lineLength = 0;
+        lineStart = position();
+        boolean consumed = false;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return consumed;
+            }
+            byte[] bytes = buffer.array();
+            int from = buffer.position();
+            int limit = buffer.limit();
+            int i = from;
+            while (i < limit && bytes[i] != '\n') {
+                i++;
+            }
+            append(bytes, from, i - from);
+            consumed = true;
+            if (i < limit) {
+                buffer.position(i + 1);
+                return true;
+            }
+            buffer.position(limit);
+        }
+    }
+
+    /** @return buffer holding the current line; valid up to {@link #lineLength()} */
+    public byte[] line() {
+        return line;
+    }
+
+    public int lineLength() {
+        return lineLength;
+    }
+
+    /** @return byte offset where the current line starts */
+    public long lineStart() {
+        return lineStart;
+    }
+
+    /** @return true if the current line contains only whitespace */
+    public boolean isBlankLine() {
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        bufferStart += buffer.limit();
+        buffer.clear();
+        int n = channel.read(buffer, bufferStart);
+        buffer.flip();
+        return n > 0;
+    }
+
+    private void append(byte[] bytes, int from, int count) {
+        if (lineLength + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+        }
+        System.arraycopy(bytes, from, line, lineLength, count);
+        lineLength += count;
+    }
+}
@@ -1,10 +1,16 @@
 package tradingengine.websocket;
 
+import tradingengine.events.LevelUpdateEvent;
+import tradingengine.events.MassCancelEvent;
 import tradingengine.events.OrderBookEvent;
 import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
+import tradingengine.websocket.messages.LevelUpdateMessage;
+import tradingengine.websocket.messages.MassCancelMessage;
 import tradingengine.websocket.messages.MessageType;
 import tradingengine.websocket.messages.OrderBookMessage;
 import tradingengine.websocket.messages.TradeMessage;
+import tradingengine.websocket.messages.TradeSummaryMessage;
 
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -46,6 +52,27 @@ public class MarketDataBroadcaster {
         broadcast(MessageSerializer.toJson(message));
     }
 
+    /** Handles a mass cancel event and broadcasts one aggregated update to all clients.
+     * @param event the mass cancel event
+     */
+    public void onMassCancel(MassCancelEvent event) {
+        broadcast(MessageSerializer.toJson(toMassCancelMessage(event)));
+    }
+
+    /** Handles a per-level trade summary and broadcasts it to all clients.
+     * @param event the trade summary event
+     */
+    public void onTradeSummary(TradeSummaryEvent event) {
+        broadcast(MessageSerializer.toJson(toTradeSummaryMessage(event)));
+    }
+
+    /** Handles a per-level quantity update and broadcasts it to all clients.
+     * @param event the level update event
+     */
+    public void onLevelUpdate(LevelUpdateEvent event) {
+        broadcast(MessageSerializer.toJson(toLevelUpdateMessage(event)));
+    }
+
     /** Converts a TradeExecutedEvent to a TradeMessage.
      * @param event the trade executed event
      * @return the corresponding trade message
@@ -53,6 +80,7 @@ public class MarketDataBroadcaster {
     TradeMessage toTradeMessage(TradeExecutedEvent event) {
         return new TradeMessage(
                 MessageType.TRADE.name(),
+                event.trade().sequence(),
                 event.trade().price(),
                 event.trade().quantity(),
                 event.trade().timestamp()
@@ -72,6 +100,51 @@ public class MarketDataBroadcaster {
         );
     }
 
+    /** Converts a MassCancelEvent to a MassCancelMessage.
+     * @param event the mass cancel event
+     * @return the corresponding message; side is BOTH when both sides were cleared
+     */
+    MassCancelMessage toMassCancelMessage(MassCancelEvent event) {
+        return new MassCancelMessage(
+                MessageType.MASS_CANCEL.name(),
+                event.side() == null ? "BOTH" : event.side().name(),
+                event.minPrice(),
+                event.maxPrice(),
+                event.orders(),
+                event.quantity()
+        );
+    }
+
+    /** Converts a TradeSummaryEvent to a TradeSummaryMessage.
+     * @param event the trade summary event
+     * @return the corresponding message
+     */
+    TradeSummaryMessage toTradeSummaryMessage(TradeSummaryEvent event) {
+        return new TradeSummaryMessage(
+                MessageType.TRADE_SUMMARY.name(),
+                event.takerSide().name(),
+                event.price(),
+                event.quantity(),
+                event.trades(),
+                event.firstSequence(),
+                event.lastSequence(),
+                event.timestamp()
+        );
+    }
+
+    /** Converts a LevelUpdateEvent to a LevelUpdateMessage.
+     * @param event the level update event
+     * @return the corresponding message
+     */
+    LevelUpdateMessage toLevelUpdateMessage(LevelUpdateEvent event) {
+        return new LevelUpdateMessage(
+                MessageType.LEVEL_UPDATE.name(),
+                event.side().name(),
+                event.price(),
+                event.quantity()
+        );
+    }
+
     /** Broadcasts a JSON message to all connected clients.
      * @param json the JSON message to broadcast
      */
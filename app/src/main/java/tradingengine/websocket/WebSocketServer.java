@@ -38,8 +38,14 @@ public final class WebSocketServer {
         // Dev APIs (need runtime, so instantiated manually)
         context.addServlet(new ServletHolder(new OrderApiServlet(runtime)), "/api/order");
         context.addServlet(new ServletHolder(new CancelApiServlet(runtime)), "/api/cancel");
+        context.addServlet(new ServletHolder(new MassCancelApiServlet(runtime)), "/api/cancel/mass");
+        context.addServlet(new ServletHolder(new AmendApiServlet(runtime)), "/api/amend");
+        context.addServlet(new ServletHolder(new MassQuoteApiServlet(runtime)), "/api/quote");
+        context.addServlet(new ServletHolder(new BatchApiServlet(runtime)), "/api/batch");
         context.addServlet(new ServletHolder(new BookApiServlet(runtime)), "/api/book");
+        context.addServlet(new ServletHolder(new TopOfBookServlet(runtime)), "/api/book/top");
         context.addServlet(new ServletHolder(new TradesApiServlet(runtime)), "/api/trades");
+        context.addServlet(new ServletHolder(new TradeExportServlet(runtime)), "/api/trades/export");
         context.addServlet(new ServletHolder(new AnalyticsServlet(analyticsStore)), "/api/analytics");
 
 
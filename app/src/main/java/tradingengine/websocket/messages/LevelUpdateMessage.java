@@ -0,0 +1,13 @@
+package tradingengine.websocket.messages;
+
+/**
+ * Final quantity of one price level after a command, sent to WebSocket clients; 0 means the
+ * level is gone.
+ */
+public record LevelUpdateMessage(
+        String type,
+        String side,
+        long price,
+        long quantity
+) {
+}
@@ -0,0 +1,14 @@
+package tradingengine.websocket.messages;
+
+/**
+ * Aggregated book update sent to WebSocket clients when a price range is cleared.
+ */
+public record MassCancelMessage(
+        String type,
+        String side,
+        long minPrice,
+        long maxPrice,
+        int orders,
+        long quantity
+) {
+}
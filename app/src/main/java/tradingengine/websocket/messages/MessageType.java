@@ -5,5 +5,8 @@ package tradingengine.websocket.messages;
  */
 public enum MessageType {
     TRADE,
-    BOOK_UPDATE
+    BOOK_UPDATE,
+    MASS_CANCEL,
+    TRADE_SUMMARY,
+    LEVEL_UPDATE
 }
@@ -4,9 +4,11 @@ import java.time.Instant;
 
 /**
  * Trade message sent to WebSocket clients.
+ * {@code sequence} lets clients drop duplicates and detect gaps.
  */
 public record TradeMessage(
         String type,
+        long sequence,
         long price,
         long quantity,
         Instant timestamp
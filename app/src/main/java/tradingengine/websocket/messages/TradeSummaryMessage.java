@@ -0,0 +1,20 @@
+package tradingengine.websocket.messages;
+
+import java.time.Instant;
+
+/**
+ * Aggregated trades at one price level, sent to WebSocket clients in place of one trade
+ * message per fill. Trades {@code firstSequence..lastSequence} are all covered, so clients
+ * can still detect gaps.
+ */
+public record TradeSummaryMessage(
+        String type,
+        String takerSide,
+        long price,
+        long quantity,
+        int trades,
+        long firstSequence,
+        long lastSequence,
+        Instant timestamp
+) {
+}
@@ -0,0 +1,63 @@
+package tradingengine.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tradingengine.domain.Trade;
+import tradingengine.persistence.FileTradeStore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the fork-join trades.csv scanner.
+class ParallelTradeScannerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    // Rationale: Splitting the file into many tiny ranges must give exactly the sequential result,
+    // including bar open/close, so no line is lost or counted twice at a range boundary.
+    @Test
+    void parallelScanMatchesSequentialAggregate() {
+        Path file = tempDir.resolve("trades.csv");
+        FileTradeStore store = new FileTradeStore(file);
+        for (int i = 0; i < 500; i++) {
+            store.save(new Trade("b" + i, "s" + i, 100 + (i * 7) % 13, 1 + i % 5, START.plusSeconds(i)));
+        }
+
+        Duration minute = Duration.ofMinutes(1);
+        TradeAggregate sequential = new TradeAggregate(minute);
+        for (Trade trade : store.findAll()) {
+            sequential.add(trade);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TradeAggregate parallel = ParallelTradeScanner.scan(file, minute, pool, 64);
+
+            assertEquals(500, parallel.totalTrades());
+            assertEquals(sequential.totalTrades(), parallel.totalTrades());
+            assertEquals(sequential.totalVolume(), parallel.totalVolume());
+            assertEquals(sequential.notional(), parallel.notional(), 1e-6);
+            assertEquals(sequential.bars(), parallel.bars());
+            assertEquals(9, parallel.bars().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Ensures a missing file is treated as an empty history.
+    @Test
+    void missingFileYieldsEmptyAggregate() {
+        TradeAggregate aggregate = ParallelTradeScanner.scan(tempDir.resolve("missing.csv"), null);
+
+        assertEquals(0, aggregate.totalTrades());
+        assertEquals(0.0, aggregate.averagePrice());
+        assertTrue(aggregate.bars().isEmpty());
+    }
+}
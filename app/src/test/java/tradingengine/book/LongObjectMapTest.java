@@ -0,0 +1,49 @@
+package tradingengine.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the open-addressing long-keyed map behind the order index.
+class LongObjectMapTest {
+
+    // Rationale: Backward-shift deletion is easy to get subtly wrong, so random puts and removes
+    // over a small, colliding key space (forcing many resizes and wrapped chains) must match HashMap.
+    @Test
+    void randomOperationsMatchHashMap() {
+        LongObjectMap<String> actual = new LongObjectMap<>(2);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int step = 0; step < 50_000; step++) {
+            long key = 1 + random.nextInt(step < 25_000 ? 64 : 4_096);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else {
+                String value = "v" + step;
+                assertEquals(expected.put(key, value), actual.put(key, value));
+            }
+            assertEquals(expected.size(), actual.size());
+            if (step % 1_000 == 0) {
+                for (long k = 1; k <= 4_096; k++) {
+                    assertEquals(expected.get(k), actual.get(k));
+                }
+            }
+        }
+    }
+
+    // Ensures the reserved empty key and null values are rejected.
+    @Test
+    void rejectsZeroKeyAndNullValue() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, "x"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+        assertNull(map.get(0));
+        assertNull(map.remove(0));
+    }
+}
@@ -3,8 +3,10 @@ package tradingengine.book;
 import org.junit.jupiter.api.Test;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
+import tradingengine.domain.OrderStatus;
 
 import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,4 +98,91 @@ class OrderBookBehaviorTest {
         assertTrue(book.cancelOrder(lowerBid.getId()));
         assertEquals(101, book.bestBid());
     }
+
+    // Ensures engine-assigned orders get sequential decimal ids that cancel by id.
+    @Test
+    void engineAssignedIdsAreSequentialAndCancellable() {
+        OrderBook book = new OrderBook();
+        Order first = Order.withEngineAssignedId(OrderSide.BUY, 100, 1, FIXED_TIME);
+        Order second = Order.withEngineAssignedId(OrderSide.SELL, 105, 1, FIXED_TIME);
+
+        book.addOrder(first);
+        book.addOrder(second);
+
+        assertEquals("1", first.getId());
+        assertEquals("2", second.getId());
+        assertTrue(book.cancelOrder("2"));
+        assertFalse(book.cancelOrder("2"));
+        assertTrue(book.sellSide().isEmpty());
+    }
+
+    // Rationale: Replayed orders carry their minted ids; the counter must continue past them,
+    // and foreign ids that merely look numeric must not be confused with engine ids.
+    @Test
+    void replayedAndForeignIdsResolve() {
+        OrderBook book = new OrderBook();
+        Order replayed = new Order("7", OrderSide.BUY, 100, 1, FIXED_TIME);
+        Order foreign = new Order("007", OrderSide.BUY, 99, 1, FIXED_TIME);
+        Order fresh = Order.withEngineAssignedId(OrderSide.BUY, 98, 1, FIXED_TIME);
+
+        book.addOrder(replayed);
+        book.addOrder(foreign);
+        book.addOrder(fresh);
+
+        assertEquals(7, replayed.getEngineId());
+        assertEquals("9", fresh.getId());
+        assertTrue(book.cancelOrder("007"));
+        assertTrue(book.cancelOrder("7"));
+        assertTrue(book.cancelOrder("9"));
+        assertTrue(book.buySide().isEmpty());
+    }
+
+    // Ensures cancelling by engine id unlinks the order and drops its emptied level,
+    // for both level stores, without disturbing other levels.
+    @Test
+    void cancelByEngineIdRemovesEmptiedLevel() {
+        for (OrderBook book : new OrderBook[]{new OrderBook(), new OrderBook(64)}) {
+            Order best = Order.withEngineAssignedId(OrderSide.SELL, 100, 1, FIXED_TIME);
+            Order lone = Order.withEngineAssignedId(OrderSide.SELL, 105, 1, FIXED_TIME);
+            Order outlier = Order.withEngineAssignedId(OrderSide.SELL, 10_000, 1, FIXED_TIME);
+            book.addOrder(best);
+            book.addOrder(lone);
+            book.addOrder(outlier);
+
+            assertSame(lone, book.cancelOrderOrNull(lone.getEngineId()));
+            assertSame(outlier, book.cancelOrderOrNull(outlier.getEngineId()));
+            assertNull(book.cancelOrderOrNull(lone.getEngineId()));
+
+            assertEquals(1, book.sellSide().snapshotLevels().size());
+            assertEquals(100, book.sellSide().bestPrice());
+        }
+    }
+
+    // Ensures a range cancel clears only the levels inside the range, on the requested side,
+    // and that the cancelled orders no longer resolve by id.
+    @Test
+    void cancelRangeClearsLevelsInRange() {
+        for (OrderBook book : new OrderBook[]{new OrderBook(), new OrderBook(64)}) {
+            Order bid = new Order("b1", OrderSide.BUY, 99, 4, FIXED_TIME);
+            Order inside1 = new Order("a1", OrderSide.SELL, 101, 2, FIXED_TIME);
+            Order inside2 = new Order("a2", OrderSide.SELL, 101, 3, FIXED_TIME);
+            Order inside3 = new Order("a3", OrderSide.SELL, 102, 1, FIXED_TIME);
+            Order outside = new Order("a4", OrderSide.SELL, 103, 1, FIXED_TIME);
+            for (Order order : List.of(bid, inside1, inside2, inside3, outside)) {
+                book.addOrder(order);
+            }
+
+            List<Order> cancelled = book.cancelRange(OrderSide.SELL, 100, 102);
+
+            assertEquals(List.of(inside1, inside2, inside3), cancelled);
+            assertEquals(OrderStatus.CANCELLED, inside2.getStatus());
+            assertNull(book.findOrder("a1"));
+            assertEquals(103, book.sellSide().bestPrice());
+            assertEquals(99, book.bestBid());
+
+            assertEquals(List.of(bid, outside), book.cancelRange(null, 0, Long.MAX_VALUE));
+            assertTrue(book.buySide().isEmpty());
+            assertTrue(book.sellSide().isEmpty());
+        }
+    }
 }
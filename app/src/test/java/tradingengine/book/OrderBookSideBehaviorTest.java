@@ -66,9 +66,9 @@ class OrderBookSideBehaviorTest {
         OrderBookSide side = new OrderBookSide(Long::compareTo);
 
         Order order = new Order(OrderSide.SELL, 100, 10, FIXED_TIME);
-        side.addRestingOrder(order);
+        OrderNode node = side.addRestingOrder(order);
 
-        assertTrue(side.cancelOrderById(order.getId(), new OrderLocator(OrderSide.SELL, 100)));
+        assertTrue(side.cancel(node));
         assertNull(side.peekBestOrderOrNull());
     }
 
@@ -82,10 +82,10 @@ class OrderBookSideBehaviorTest {
         Order o3 = new Order(OrderSide.SELL, 100, 10, FIXED_TIME);
 
         side.addRestingOrder(o1);
-        side.addRestingOrder(o2);
+        OrderNode n2 = side.addRestingOrder(o2);
         side.addRestingOrder(o3);
 
-        assertTrue(side.cancelOrderById(o2.getId(), new OrderLocator(OrderSide.SELL, 100)));
+        assertTrue(side.cancel(n2));
         assertSame(o1, side.peekBestOrderOrNull());
 
         o1.execute(10);
@@ -103,10 +103,10 @@ class OrderBookSideBehaviorTest {
         Order higher = new Order(OrderSide.SELL, 101, 10, FIXED_TIME);
 
         side.addRestingOrder(best);
-        side.addRestingOrder(higher);
+        OrderNode higherNode = side.addRestingOrder(higher);
 
         assertSame(best, side.peekBestOrderOrNull());
-        assertTrue(side.cancelOrderById(higher.getId(), new OrderLocator(OrderSide.SELL, 101)));
+        assertTrue(side.cancel(higherNode));
         assertSame(best, side.peekBestOrderOrNull());
     }
 
@@ -179,4 +179,60 @@ class OrderBookSideBehaviorTest {
         assertEquals(102L, sellLevels.get(0).price());
         assertEquals(104L, sellLevels.get(1).price());
     }
+
+    // Rationale: Aggregated depth reads running totals instead of walking orders, so the totals
+    // must agree with a full walk after every kind of mutation (add, partial fill, cancel, remove).
+    @Test
+    void snapshotLevels_runningTotalsMatchFullWalk() {
+        OrderBookSide side = new OrderBookSide(Long::compareTo);
+        Order a = new Order(OrderSide.SELL, 100, 5, FIXED_TIME);
+        Order b = new Order(OrderSide.SELL, 100, 7, FIXED_TIME);
+        Order c = new Order(OrderSide.SELL, 101, 2, FIXED_TIME);
+        side.addRestingOrder(a);
+        OrderNode bNode = side.addRestingOrder(b);
+        side.addRestingOrder(c);
+
+        side.fillBestOrder(3);                           // a partially filled
+        assertAggregatesMatch(side);
+        side.fillBestOrder(2);                           // a filled but still queued
+        assertAggregatesMatch(side);
+        assertSame(a, side.removeBestOrderIfInactive());
+        assertTrue(side.cancel(bNode));                  // level 100 disappears
+        assertAggregatesMatch(side);
+
+        var level = side.snapshotLevels(false).get(0);
+        assertEquals(101L, level.price());
+        assertEquals(2L, level.qty());
+        assertEquals(1, level.count());
+        assertTrue(level.orders().isEmpty());
+    }
+
+    // Ensures depth-limited snapshots return only the best levels, with or without orders.
+    @Test
+    void snapshotLevels_limitsDepth() {
+        OrderBookSide side = new OrderBookSide(java.util.Comparator.reverseOrder());
+        for (long price = 100; price < 110; price++) {
+            side.addRestingOrder(new Order(OrderSide.BUY, price, 1, FIXED_TIME));
+        }
+
+        var top3 = side.snapshotLevels(3, false);
+        var top3WithOrders = side.snapshotLevels(3, true);
+
+        assertEquals(java.util.List.of(109L, 108L, 107L), top3.stream().map(OrderBookSide.LevelSnapshot::price).toList());
+        assertTrue(top3.stream().allMatch(level -> level.orders().isEmpty()));
+        assertEquals(side.snapshotLevels().subList(0, 3), top3WithOrders);
+        assertEquals(10, side.snapshotLevels(50, false).size());
+        assertThrows(IllegalArgumentException.class, () -> side.snapshotLevels(0, false));
+    }
+
+    private static void assertAggregatesMatch(OrderBookSide side) {
+        var full = side.snapshotLevels(true);
+        var aggregated = side.snapshotLevels(false);
+        assertEquals(full.size(), aggregated.size());
+        for (int i = 0; i < full.size(); i++) {
+            assertEquals(full.get(i).price(), aggregated.get(i).price());
+            assertEquals(full.get(i).qty(), aggregated.get(i).qty());
+            assertEquals(full.get(i).count(), aggregated.get(i).count());
+        }
+    }
 }
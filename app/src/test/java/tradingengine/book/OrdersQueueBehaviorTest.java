@@ -5,6 +5,7 @@ import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
 
 import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,18 +30,18 @@ class OrdersQueueBehaviorTest {
         assertSame(o2, level.peekOldest());
     }
 
-    // Ensures removal by id deletes the correct order.
+    // Ensures removing a node deletes the correct order.
     @Test
-    void removeByIdRemovesCorrectOrder() {
+    void removeNodeRemovesCorrectOrder() {
         OrdersQueue level = new OrdersQueue();
 
         Order o1 = new Order(OrderSide.SELL, 100, 1, FIXED_TIME);
         Order o2 = new Order(OrderSide.SELL, 100, 1, FIXED_TIME);
 
-        level.add(o1);
+        OrderNode n1 = level.add(o1);
         level.add(o2);
 
-        assertSame(o1, level.removeById(o1.getId()));
+        assertTrue(level.remove(n1));
         assertSame(o2, level.peekOldest());
     }
 
@@ -53,4 +54,40 @@ class OrdersQueueBehaviorTest {
         assertNull(level.removeOldest());
         assertTrue(level.isEmpty());
     }
+
+    // Ensures unlinking a node from the head, middle or tail keeps the remaining FIFO intact.
+    @Test
+    void removeNodeUnlinksFromAnyPosition() {
+        OrdersQueue level = new OrdersQueue();
+        Order o1 = new Order(OrderSide.BUY, 100, 1, FIXED_TIME);
+        Order o2 = new Order(OrderSide.BUY, 100, 1, FIXED_TIME);
+        Order o3 = new Order(OrderSide.BUY, 100, 1, FIXED_TIME);
+        Order o4 = new Order(OrderSide.BUY, 100, 1, FIXED_TIME);
+        OrderNode n1 = level.add(o1);
+        OrderNode n2 = level.add(o2);
+        level.add(o3);
+        OrderNode n4 = level.add(o4);
+
+        assertTrue(level.remove(n2));
+        assertTrue(level.remove(n1));
+        assertTrue(level.remove(n4));
+
+        assertFalse(n2.isLinked());
+        assertEquals(1, level.size());
+        assertEquals(List.of(o3), level.snapshotFifo());
+        assertSame(o3, level.removeOldest());
+        assertTrue(level.isEmpty());
+    }
+
+    // Ensures a node is only removed by the queue that holds it, and only once.
+    @Test
+    void removeNodeRejectsForeignOrStaleNodes() {
+        OrdersQueue level = new OrdersQueue();
+        OrdersQueue other = new OrdersQueue();
+        OrderNode node = level.add(new Order(OrderSide.SELL, 100, 1, FIXED_TIME));
+
+        assertFalse(other.remove(node));
+        assertTrue(level.remove(node));
+        assertFalse(level.remove(node));
+    }
 }
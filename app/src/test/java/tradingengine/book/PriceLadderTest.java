@@ -0,0 +1,120 @@
+package tradingengine.book;
+
+import org.junit.jupiter.api.Test;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests that the array-indexed price ladder behaves exactly like the TreeMap-backed side.
+class PriceLadderTest {
+
+    private static final Instant FIXED_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Rationale: The ladder is a drop-in replacement, so random adds, cancels and fills (including
+    // prices outside the window and re-anchoring after the window empties) must match the TreeMap.
+    @Test
+    void randomOperationsMatchTreeMapSide() {
+        for (OrderSide orderSide : OrderSide.values()) {
+            Comparator<Long> comparator = orderSide == OrderSide.BUY ? Comparator.reverseOrder() : Comparator.naturalOrder();
+            OrderBookSide expected = new OrderBookSide(comparator);
+            OrderBookSide actual = OrderBookSide.withPriceLadder(comparator, 16);
+            List<OrderNode[]> resting = new ArrayList<>();
+            Random random = new Random(7);
+
+            for (int step = 0; step < 5_000; step++) {
+                int op = random.nextInt(10);
+                if (op < 5 || resting.isEmpty()) {
+                    // Drift the price band over time so the window has to follow it.
+                    long price = 1 + (step / 500) * 10 + random.nextInt(60);
+                    long qty = 1 + random.nextInt(5);
+                    Order a = new Order(orderSide, price, qty, FIXED_TIME);
+                    Order b = new Order(a.getId(), orderSide, price, qty, FIXED_TIME);
+                    resting.add(new OrderNode[]{expected.addRestingOrder(a), actual.addRestingOrder(b)});
+                } else if (op < 8) {
+                    OrderNode[] pair = resting.remove(random.nextInt(resting.size()));
+                    assertEquals(expected.cancel(pair[0]), actual.cancel(pair[1]));
+                } else {
+                    Order a = expected.peekBestOrderOrNull();
+                    Order b = actual.peekBestOrderOrNull();
+                    assertEquals(a.getId(), b.getId());
+                    expected.fillBestOrder(a.getRemainingQty());
+                    actual.fillBestOrder(b.getRemainingQty());
+                    assertEquals(a.getId(), expected.removeBestOrderIfInactive().getId());
+                    assertEquals(b.getId(), actual.removeBestOrderIfInactive().getId());
+                    resting.removeIf(pair -> pair[0].order() == a);
+                }
+
+                assertEquals(expected.isEmpty(), actual.isEmpty());
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.bestPrice(), actual.bestPrice());
+                }
+                if (step % 50 == 0) {
+                    assertEquals(expected.snapshotLevels(), actual.snapshotLevels());
+                    assertEquals(expected.snapshotLevels(false), actual.snapshotLevels(false));
+                }
+            }
+            assertEquals(expected.snapshotLevels(), actual.snapshotLevels());
+        }
+    }
+
+    // Ensures a range cancel seeks straight to its levels yet removes exactly what the TreeMap
+    // side does, across in-window levels, outliers on both sides and open-ended ranges.
+    @Test
+    void cancelRangeMatchesTreeMapSide() {
+        for (OrderSide orderSide : OrderSide.values()) {
+            Comparator<Long> comparator = orderSide == OrderSide.BUY ? Comparator.reverseOrder() : Comparator.naturalOrder();
+            OrderBookSide expected = new OrderBookSide(comparator);
+            OrderBookSide actual = OrderBookSide.withPriceLadder(comparator, 16);
+            Random random = new Random(43);
+
+            for (int round = 0; round < 200; round++) {
+                for (int i = random.nextInt(20); i > 0; i--) {
+                    long price = 1 + random.nextInt(200);
+                    Order a = new Order(orderSide, price, 1, FIXED_TIME);
+                    expected.addRestingOrder(a);
+                    actual.addRestingOrder(new Order(a.getId(), orderSide, price, 1, FIXED_TIME));
+                }
+                long min = random.nextInt(210);
+                long max = random.nextInt(10) == 0 ? Long.MAX_VALUE : min + random.nextInt(60);
+                List<Order> expectedRemoved = new ArrayList<>();
+                List<Order> actualRemoved = new ArrayList<>();
+                expected.cancelRange(min, max, expectedRemoved);
+                actual.cancelRange(min, max, actualRemoved);
+
+                assertEquals(expectedRemoved.stream().map(Order::getId).toList(),
+                        actualRemoved.stream().map(Order::getId).toList(), "round " + round);
+                assertEquals(expected.snapshotLevels(), actual.snapshotLevels());
+            }
+        }
+    }
+
+    // Ensures prices far outside the window still rank correctly against in-window levels.
+    @Test
+    void outliersKeepPricePriority() {
+        OrderBookSide asks = OrderBookSide.withPriceLadder(Comparator.naturalOrder(), 8);
+        asks.addRestingOrder(new Order(OrderSide.SELL, 1_000, 1, FIXED_TIME)); // anchors the window
+        asks.addRestingOrder(new Order(OrderSide.SELL, 5, 1, FIXED_TIME));     // better outlier
+        asks.addRestingOrder(new Order(OrderSide.SELL, 50_000, 1, FIXED_TIME)); // worse outlier
+        asks.addRestingOrder(new Order(OrderSide.SELL, 1_002, 1, FIXED_TIME));
+
+        assertEquals(5, asks.bestPrice());
+        assertEquals(List.of(5L, 1_000L, 1_002L, 50_000L),
+                asks.snapshotLevels().stream().map(OrderBookSide.LevelSnapshot::price).toList());
+    }
+
+    // Ensures non-ordering comparators are rejected up front.
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> OrderBookSide.withPriceLadder(Comparator.naturalOrder(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> OrderBookSide.withPriceLadder((x, y) -> 0, 8));
+    }
+}
@@ -0,0 +1,123 @@
+package tradingengine.matchingengine;
+
+import org.junit.jupiter.api.Test;
+import tradingengine.book.OrderBook;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+import tradingengine.domain.OrderStatus;
+import tradingengine.domain.TimeInForce;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Tests for the sink-based matching loop underneath MatchingEngine.
+class BookMatcherTest {
+
+    private static final Instant FIXED_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Counts fills in primitives only, so the sink itself allocates nothing.
+    private static final class CountingSink implements FillSink {
+        long fills;
+        long quantity;
+        long notional;
+        long removed;
+
+        @Override
+        public void onFill(Order incoming, Order resting, long price, long qty) {
+            fills++;
+            quantity += qty;
+            notional += price * qty;
+        }
+
+        @Override
+        public void onRestingRemoved(Order resting) {
+            removed++;
+        }
+    }
+
+    // Ensures fills follow price-time priority at the resting price and the remainder rests.
+    @Test
+    void reportsFillsAndRestsRemainder() {
+        OrderBook book = new OrderBook();
+        BookMatcher matcher = new BookMatcher(book);
+        CountingSink sink = new CountingSink();
+        matcher.submit(new Order(OrderSide.SELL, 101, 2, FIXED_TIME), FIXED_TIME, sink);
+        matcher.submit(new Order(OrderSide.SELL, 100, 1, FIXED_TIME), FIXED_TIME, sink);
+
+        Order buy = new Order(OrderSide.BUY, 101, 5, FIXED_TIME);
+        long filled = matcher.submit(buy, FIXED_TIME, sink);
+
+        assertEquals(3, filled);
+        assertEquals(2, sink.fills);
+        assertEquals(100 + 2 * 101, sink.notional);
+        assertEquals(2, sink.removed);
+        assertTrue(book.sellSide().isEmpty());
+        assertEquals(101, book.bestBid());
+        assertSame(buy, matcher.cancel(buy.getId()));
+    }
+
+    // Ensures the matcher's time-in-force rules: a FOK that cannot fill never trades, and IOC
+    // or already-expired GTT remainders are cancelled instead of resting.
+    @Test
+    void appliesTimeInForceToTheRemainder() {
+        OrderBook book = new OrderBook();
+        BookMatcher matcher = new BookMatcher(book);
+        CountingSink sink = new CountingSink();
+        matcher.submit(new Order(OrderSide.SELL, 100, 2, FIXED_TIME), FIXED_TIME, sink);
+
+        Order fok = new Order(OrderSide.BUY, 100, 3, FIXED_TIME).assignTimeInForce(TimeInForce.FOK);
+        assertEquals(0, matcher.submit(fok, FIXED_TIME, sink));
+        assertEquals(OrderStatus.CANCELLED, fok.getStatus());
+
+        Order ioc = new Order(OrderSide.BUY, 100, 3, FIXED_TIME).assignTimeInForce(TimeInForce.IOC);
+        assertEquals(2, matcher.submit(ioc, FIXED_TIME, sink));
+        assertEquals(OrderStatus.CANCELLED, ioc.getStatus());
+
+        Order expired = new Order(OrderSide.BUY, 99, 1, FIXED_TIME).assignGoodTillTime(FIXED_TIME.plusSeconds(1));
+        matcher.submit(expired, FIXED_TIME.plusSeconds(1), sink);
+        Order live = new Order(OrderSide.BUY, 98, 1, FIXED_TIME).assignGoodTillTime(FIXED_TIME.plusSeconds(1));
+        matcher.submit(live, FIXED_TIME, sink);
+
+        assertEquals(OrderStatus.CANCELLED, expired.getStatus());
+        assertEquals(98, book.bestBid());
+        assertTrue(book.sellSide().isEmpty());
+    }
+
+    // Rationale: The steady-state matching loop must not allocate; otherwise GC pauses show up
+    // as latency spikes under sustained load. Orders are created up front so only matching is measured.
+    @Test
+    void steadyStateMatchingAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        int orders = 20_000;
+        OrderBook book = new OrderBook();
+        BookMatcher matcher = new BookMatcher(book);
+        CountingSink sink = new CountingSink();
+        Order[] incoming = new Order[orders];
+        for (int i = 0; i < orders; i++) {
+            matcher.submit(Order.withEngineAssignedId(OrderSide.SELL, 100 + i % 10, 1, FIXED_TIME), FIXED_TIME, sink);
+            incoming[i] = Order.withEngineAssignedId(OrderSide.BUY, 1_000, 1, FIXED_TIME);
+        }
+
+        // Warm up on the first half, measure the second.
+        for (int i = 0; i < orders / 2; i++) {
+            matcher.match(incoming[i], sink);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = orders / 2; i < orders; i++) {
+            matcher.match(incoming[i], sink);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(orders, sink.fills);
+        assertTrue(book.sellSide().isEmpty());
+        // Any per-fill object would cost >= 16 bytes per match; allow a few one-off JIT/runtime bytes.
+        assertTrue(allocated < orders / 2, "bytes allocated while matching: " + allocated);
+    }
+}
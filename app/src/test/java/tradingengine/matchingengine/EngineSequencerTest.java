@@ -0,0 +1,160 @@
+package tradingengine.matchingengine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tradingengine.book.OrderBook;
+import tradingengine.domain.Order;
+import tradingengine.domain.OrderSide;
+import tradingengine.domain.Trade;
+import tradingengine.events.EventDispatcher;
+import tradingengine.persistence.CommandLog;
+import tradingengine.persistence.FileTradeStore;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tests for the single-writer sequencer in front of the matching engine.
+class EngineSequencerTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path tempDir;
+
+    private MatchingEngine newEngine() {
+        return new MatchingEngine(
+                new OrderBook(),
+                FIXED_CLOCK,
+                new EventDispatcher(),
+                new FileTradeStore(tempDir.resolve("trades.csv")),
+                new CommandLog(tempDir.resolve("commands.log"))
+        );
+    }
+
+    private static Order order(OrderSide side, long price, long quantity) {
+        return new Order(side, price, quantity, Instant.now(FIXED_CLOCK));
+    }
+
+    // Rationale: Commands from many request threads must be applied one at a time, so the book
+    // and the trade log end up consistent with each other.
+    @Test
+    void concurrentSubmitsAreAppliedOneAtATime() throws Exception {
+        MatchingEngine engine = newEngine();
+        int threads = 8;
+        int ordersPerThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (EngineSequencer sequencer = new EngineSequencer(engine)) {
+            List<Future<Long>> filled = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                OrderSide side = t % 2 == 0 ? OrderSide.BUY : OrderSide.SELL;
+                filled.add(pool.submit(() -> {
+                    long qty = 0;
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        Order order = order(side, 100, 1);
+                        List<Trade> trades = sequencer.call(e -> e.submit(order), TIMEOUT);
+                        qty += trades.stream().mapToLong(Trade::quantity).sum();
+                    }
+                    return qty;
+                }));
+            }
+            long traded = 0;
+            for (Future<Long> f : filled) {
+                traded += f.get(30, TimeUnit.SECONDS);
+            }
+
+            // Equal buy and sell flow at one price must fully cross.
+            assertEquals(threads * ordersPerThread / 2, traded);
+            assertTrue(sequencer.call(e -> e.getBook().buySide().isEmpty() && e.getBook().sellSide().isEmpty(), TIMEOUT));
+            assertEquals(traded, engine.tradeHistory().size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Ensures a full buffer rejects immediately instead of blocking the caller.
+    @Test
+    void fullBufferRejects() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (EngineSequencer sequencer = new EngineSequencer(newEngine(), 1)) {
+            CompletableFuture<Boolean> blocker = sequencer.submit(e -> {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Integer> queued = sequencer.submit(e -> 1);
+
+            CompletableFuture<Integer> rejected = sequencer.submit(e -> 2);
+
+            assertTrue(rejected.isCompletedExceptionally());
+            release.countDown();
+            assertTrue(blocker.get(10, TimeUnit.SECONDS));
+            assertEquals(1, queued.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    // Rationale: A timed-out call is answered "retry later", so the command must be withdrawn;
+    // if it still ran afterwards, a client that retries would place it twice.
+    @Test
+    void timedOutCommandNeverRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        try (EngineSequencer sequencer = new EngineSequencer(newEngine())) {
+            CompletableFuture<Boolean> blocker = sequencer.submit(e -> {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertThrows(TimeoutException.class, () -> sequencer.call(e -> ran.getAndSet(true), Duration.ofMillis(50)));
+
+            release.countDown();
+            assertTrue(blocker.get(10, TimeUnit.SECONDS));
+            assertTrue(sequencer.call(e -> true, TIMEOUT));
+            assertFalse(ran.get());
+        }
+    }
+
+    // Ensures engine exceptions reach the caller unwrapped.
+    @Test
+    void commandExceptionsPropagateToCaller() {
+        try (EngineSequencer sequencer = new EngineSequencer(newEngine())) {
+            assertThrows(NullPointerException.class, () -> sequencer.call(e -> e.submit(null), TIMEOUT));
+        }
+    }
+
+    // Ensures commands are rejected once the sequencer is closed.
+    @Test
+    void closedSequencerRejects() {
+        EngineSequencer sequencer = new EngineSequencer(newEngine());
+        sequencer.close();
+
+        assertThrows(RejectedExecutionException.class, () -> sequencer.call(e -> 1, TIMEOUT));
+    }
+}
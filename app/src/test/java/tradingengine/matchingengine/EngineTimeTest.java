@@ -0,0 +1,65 @@
+package tradingengine.matchingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineTimeTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00.000000123Z");
+
+    /**
+     * Clock whose reading the test sets by hand.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = START;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    // Ensures engine time is epoch nanos at full precision and never goes backwards when the
+    // clock does.
+    @Test
+    void timeIsMonotonicWhenClockStepsBack() {
+        ManualClock clock = new ManualClock();
+        EngineTime time = new EngineTime(clock);
+
+        assertEquals(1_767_225_600_000_000_123L, time.advance());
+        clock.now = START.minusSeconds(5);
+        assertEquals(1_767_225_600_000_000_123L, time.advance());
+        assertEquals(START, time.instant());
+        clock.now = START.plusNanos(1);
+        assertEquals(1_767_225_600_000_000_124L, time.advance());
+    }
+
+    // Ensures replay takes the time from the journal, and live time resumes from there on.
+    @Test
+    void replayUsesJournaledTime() {
+        ManualClock clock = new ManualClock();
+        EngineTime time = new EngineTime(clock);
+        Instant journaled = START.plusSeconds(60);
+
+        time.replayAt(journaled);
+
+        assertSame(journaled, time.instant());
+        assertEquals(EngineTime.toNanos(journaled), time.advance());
+    }
+}
@@ -0,0 +1,71 @@
+package tradingengine.matchingengine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    private static final long START = 1_767_225_600_000L; // 2026-01-01T00:00:00Z
+
+    // Ensures the wheel fires exactly the entries a brute-force scan would, across every wheel
+    // level, the overflow list, overdue schedules and calls with an earlier time.
+    @Test
+    void firesExactlyTheDueEntries() {
+        Random random = new Random(46);
+        long[] spans = {1_000L, 100_000L, 1L << 30, 1L << 34};
+        ExpiryWheel wheel = new ExpiryWheel();
+        Map<Long, Long> pending = new HashMap<>();
+        long now = START;
+        long nextId = 1;
+
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                long deadline = now - 50 + (long) (random.nextDouble() * spans[random.nextInt(spans.length)]);
+                wheel.schedule(nextId, deadline, now);
+                pending.put(nextId, deadline);
+                nextId++;
+            }
+            long step = random.nextInt(10) == 0
+                    ? (long) (random.nextDouble() * (1L << 31))
+                    : random.nextInt(2_000);
+            long at = random.nextInt(20) == 0 ? now - random.nextInt(1_000) : now + step;
+            now = Math.max(now, at);
+
+            Map<Long, Long> expected = new HashMap<>();
+            for (Iterator<Map.Entry<Long, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Long> entry = it.next();
+                if (entry.getValue() <= at) {
+                    expected.put(entry.getKey(), entry.getValue());
+                    it.remove();
+                }
+            }
+            Map<Long, Long> fired = new HashMap<>();
+            wheel.advance(at, (id, deadline) -> assertNull(fired.put(id, deadline), "fired twice: " + id));
+
+            assertEquals(expected, fired, "round " + round);
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+
+    // Ensures an idle wheel jumps over any gap, and a deadline far beyond the wheels still fires
+    // on time after waiting in the overflow list.
+    @Test
+    void farDeadlineFiresAfterLongIdleGap() {
+        ExpiryWheel wheel = new ExpiryWheel();
+        long far = START + (1L << 40);
+        wheel.schedule(7, far, START);
+
+        wheel.advance(far - 1, (id, deadline) -> fail("fired early"));
+        long[] fired = new long[1];
+        wheel.advance(far, (id, deadline) -> fired[0] = id);
+
+        assertEquals(7, fired[0]);
+        assertEquals(0, wheel.size());
+    }
+}
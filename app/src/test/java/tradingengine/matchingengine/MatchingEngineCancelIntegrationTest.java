@@ -6,6 +6,9 @@ import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.MassCancelEvent;
+import tradingengine.events.OrderBookEvent;
+import tradingengine.events.listeners.CapturingEventListener;
 import tradingengine.persistence.FileTradeStore;
 
 import java.io.IOException;
@@ -85,4 +88,68 @@ class MatchingEngineCancelIntegrationTest {
         assertTrue(engine.cancel(buy.getId()));
         assertFalse(engine.cancel(buy.getId()));
     }
+
+    // Rationale: A mass cancel pulls every matching order in one command and reports it as one
+    // aggregated event, not one event per order.
+    @Test
+    void massCancelEmitsOneAggregatedEvent() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        CapturingEventListener<MassCancelEvent> massListener = new CapturingEventListener<>();
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, dispatcher, tradeStore());
+        engine.submit(order(OrderSide.BUY, 99, 5));
+        for (int i = 0; i < 10; i++) {
+            engine.submit(order(OrderSide.SELL, 101 + i % 3, 2));
+        }
+        dispatcher.register(OrderBookEvent.class, bookListener);
+        dispatcher.register(MassCancelEvent.class, massListener);
+
+        assertEquals(10, engine.massCancel(EngineCommand.MassCancel.all(OrderSide.SELL)));
+        assertEquals(0, engine.massCancel(EngineCommand.MassCancel.all(OrderSide.SELL)));
+
+        assertTrue(bookListener.events().isEmpty());
+        assertEquals(1, massListener.events().size());
+        assertEquals(20, massListener.events().get(0).quantity());
+        assertTrue(engine.getBook().sellSide().isEmpty());
+        assertEquals(99, engine.getBook().bestBid());
+    }
+
+    // Ensures a mass cancel scoped to an owner leaves other clients' orders at the same levels.
+    @Test
+    void massCancelByOwnerKeepsOtherClients() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order mine = order(OrderSide.SELL, 101, 2).assignOwner("mm");
+        Order theirs = order(OrderSide.SELL, 101, 3);
+        Order mineOutOfRange = order(OrderSide.SELL, 110, 1).assignOwner("mm");
+        engine.submit(mine);
+        engine.submit(theirs);
+        engine.submit(mineOutOfRange);
+
+        assertEquals(1, engine.massCancel(new EngineCommand.MassCancel(null, 0, 105, "mm")));
+
+        assertFalse(mine.isActive());
+        assertEquals(List.of(mineOutOfRange), engine.getBook().ordersOf("mm"));
+        assertEquals(3, engine.getBook().sellSide().bestLevelQty());
+    }
+
+    // Ensures a client's mass cancel also disarms its pending stops that match the filter, and
+    // leaves other clients' stops and its own stops on the other side armed.
+    @Test
+    void massCancelByOwnerCancelsPendingStops() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order mine = order(OrderSide.BUY, 102, 2).assignOwner("mm").assignStopPrice(101);
+        Order theirs = order(OrderSide.BUY, 102, 2).assignOwner("other").assignStopPrice(101);
+        Order mineOtherSide = order(OrderSide.SELL, 90, 1).assignOwner("mm").assignStopPrice(95);
+        engine.submit(mine);
+        engine.submit(theirs);
+        engine.submit(mineOtherSide);
+
+        assertEquals(1, engine.massCancel(new EngineCommand.MassCancel(OrderSide.BUY, 0, 105, "mm")));
+
+        assertFalse(mine.isActive());
+        assertTrue(theirs.isActive());
+        assertTrue(mineOtherSide.isActive());
+        assertFalse(engine.cancel(mine.getId()));
+        assertTrue(engine.cancel(theirs.getId()));
+    }
 }
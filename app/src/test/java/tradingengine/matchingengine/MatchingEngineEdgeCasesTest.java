@@ -4,8 +4,15 @@ import org.junit.jupiter.api.Test;
 import tradingengine.book.OrderBook;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
+import tradingengine.domain.OrderStatus;
+import tradingengine.domain.TimeInForce;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.OrderBookEvent;
+import tradingengine.events.OrderBookEventType;
+import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
+import tradingengine.events.listeners.CapturingEventListener;
 import tradingengine.persistence.FileTradeStore;
 
 import java.io.IOException;
@@ -13,6 +20,7 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.List;
 
@@ -36,6 +44,26 @@ class MatchingEngineEdgeCasesTest {
         return new Order(side, price, quantity, Instant.now(FIXED_CLOCK));
     }
 
+    // Engine clock a test moves by hand; starts at FIXED_INSTANT.
+    private static final class ManualClock extends Clock {
+        private Instant now = FIXED_INSTANT;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
     // Ensures a lone SELL in an empty book produces no trades.
     @Test
     void submitSellWithEmptyBookProducesNoTrades() {
@@ -118,4 +146,162 @@ class MatchingEngineEdgeCasesTest {
         assertTrue(trades.isEmpty());
         assertFalse(sell.isActive());
     }
+
+    // Rationale: An IOC order trades what it can and its remainder is cancelled without ever
+    // resting, so no ADD event or cancel follows.
+    @Test
+    void iocRemainderNeverRests() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, dispatcher, tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 4));
+        dispatcher.register(OrderBookEvent.class, bookListener);
+
+        Order ioc = order(OrderSide.BUY, 100, 10).assignTimeInForce(TimeInForce.IOC);
+        List<Trade> trades = engine.submit(ioc);
+
+        assertEquals(4, trades.get(0).quantity());
+        assertEquals(OrderStatus.CANCELLED, ioc.getStatus());
+        assertEquals(6, ioc.getRemainingQty());
+        assertTrue(engine.getBook().buySide().isEmpty());
+        assertTrue(bookListener.events().stream().noneMatch(e -> e.type() == OrderBookEventType.ADD));
+    }
+
+    // Rationale: A FOK order that cannot fill completely across the crossing levels is killed
+    // before trading; one that can fills across levels like a normal order.
+    @Test
+    void fokFillsCompletelyOrNotAtAll() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 4));
+        engine.submit(order(OrderSide.SELL, 101, 4));
+        engine.submit(order(OrderSide.SELL, 105, 10));
+
+        Order killed = order(OrderSide.BUY, 101, 9).assignTimeInForce(TimeInForce.FOK);
+        assertTrue(engine.submit(killed).isEmpty());
+        assertEquals(OrderStatus.CANCELLED, killed.getStatus());
+        assertEquals(4, engine.getBook().sellSide().bestLevelQty());
+
+        Order filled = order(OrderSide.BUY, 101, 8).assignTimeInForce(TimeInForce.FOK);
+        assertEquals(2, engine.submit(filled).size());
+        assertEquals(OrderStatus.FILLED, filled.getStatus());
+        assertEquals(105, engine.getBook().sellSide().bestPrice());
+    }
+
+    // Rationale: A GTT order rests until its expiry; once that has passed, the next command
+    // expires it before matching, so it never trades late.
+    @Test
+    void gttOrderExpiresBeforeItCanTradeLate() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        dispatcher.register(OrderBookEvent.class, bookListener);
+        ManualClock clock = new ManualClock();
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), clock, dispatcher, tradeStore());
+        engine.submit(order(OrderSide.SELL, 101, 5));
+        Order gtt = order(OrderSide.SELL, 100, 5).assignGoodTillTime(FIXED_INSTANT.plusSeconds(5));
+        engine.submit(gtt);
+
+        assertEquals(0, engine.expireOrders(FIXED_INSTANT.plusSeconds(4)));
+        assertEquals(100, engine.getBook().sellSide().bestPrice());
+
+        clock.now = FIXED_INSTANT.plusSeconds(10);
+        List<Trade> trades = engine.submit(order(OrderSide.BUY, 101, 1));
+
+        assertEquals(101, trades.get(0).price());
+        assertEquals(OrderStatus.CANCELLED, gtt.getStatus());
+        assertEquals(101, engine.getBook().sellSide().bestPrice());
+        assertEquals(1, bookListener.events().stream().filter(e -> e.type() == OrderBookEventType.EXPIRE).count());
+    }
+
+    // Ensures a GTT order whose expiry has already passed on arrival trades like IOC and never rests.
+    @Test
+    void alreadyExpiredGttNeverRests() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 2));
+
+        Order gtt = order(OrderSide.BUY, 100, 5).assignGoodTillTime(FIXED_INSTANT);
+        assertEquals(1, engine.submit(gtt).size());
+
+        assertEquals(OrderStatus.CANCELLED, gtt.getStatus());
+        assertTrue(engine.getBook().buySide().isEmpty());
+    }
+
+    // Ensures expiry on arrival is judged by engine time: a GTT built before its expiry but
+    // applied after it trades like IOC and never rests past its expiry.
+    @Test
+    void gttExpiredByEngineTimeOnArrivalNeverRests() {
+        ManualClock clock = new ManualClock();
+        clock.now = FIXED_INSTANT.plusSeconds(10);
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), clock, new EventDispatcher(), tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 2));
+
+        Order gtt = order(OrderSide.BUY, 100, 5).assignGoodTillTime(FIXED_INSTANT.plusSeconds(5));
+        assertEquals(1, engine.submit(gtt).size());
+
+        assertEquals(OrderStatus.CANCELLED, gtt.getStatus());
+        assertTrue(engine.getBook().buySide().isEmpty());
+    }
+
+    // Rationale: Stop-limit orders wait off the book until the last trade price reaches their
+    // stop; an activated stop's own trades can trigger the next one, and untriggered stops
+    // stay pending and cancellable.
+    @Test
+    void stopLimitOrdersActivateWhenLastPriceCrosses() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 1));
+        engine.submit(order(OrderSide.SELL, 101, 1));
+        engine.submit(order(OrderSide.SELL, 102, 5));
+        Order first = order(OrderSide.BUY, 102, 2).assignStopPrice(101);
+        Order chained = order(OrderSide.BUY, 102, 1).assignStopPrice(102);
+        Order far = order(OrderSide.BUY, 103, 1).assignStopPrice(103);
+        assertTrue(engine.submit(first).isEmpty());
+        engine.submit(chained);
+        engine.submit(far);
+
+        assertEquals(1, engine.submit(order(OrderSide.BUY, 100, 1)).size());
+        assertEquals(OrderStatus.NEW, first.getStatus());
+
+        List<Trade> trades = engine.submit(order(OrderSide.BUY, 101, 1));
+
+        assertEquals(List.of(101L, 102L, 102L), trades.stream().map(Trade::price).toList());
+        assertEquals(first.getId(), trades.get(1).buyOrderId());
+        assertEquals(chained.getId(), trades.get(2).buyOrderId());
+        assertEquals(OrderStatus.NEW, far.getStatus());
+        assertTrue(engine.cancel(far.getId()));
+        assertEquals(OrderStatus.CANCELLED, far.getStatus());
+        assertFalse(engine.cancel(far.getId()));
+    }
+
+    // Rationale: A market order sweeps levels only up to its protection limit, never rests,
+    // and publishes one trade summary per level instead of an event per fill.
+    @Test
+    void marketOrderSweepsToProtectionLimitWithoutResting() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<TradeSummaryEvent> summaries = new CapturingEventListener<>();
+        CapturingEventListener<TradeExecutedEvent> fills = new CapturingEventListener<>();
+        dispatcher.register(TradeSummaryEvent.class, summaries);
+        dispatcher.register(TradeExecutedEvent.class, fills);
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, dispatcher, tradeStore());
+        engine.submit(order(OrderSide.SELL, 100, 1));
+        engine.submit(order(OrderSide.SELL, 100, 2));
+        engine.submit(order(OrderSide.SELL, 101, 3));
+        engine.submit(order(OrderSide.SELL, 105, 5));
+
+        Order market = order(OrderSide.BUY, 102, 10).assignMarket();
+        List<Trade> trades = engine.submit(market);
+
+        assertEquals(3, trades.size());
+        assertEquals(OrderStatus.CANCELLED, market.getStatus());
+        assertEquals(4, market.getRemainingQty());
+        assertTrue(engine.getBook().buySide().isEmpty());
+        assertEquals(105, engine.getBook().sellSide().bestPrice());
+        assertTrue(fills.events().isEmpty());
+        assertEquals(2, summaries.events().size());
+        TradeSummaryEvent first = summaries.events().get(0);
+        assertEquals(100, first.price());
+        assertEquals(3, first.quantity());
+        assertEquals(2, first.trades());
+        assertEquals(trades.get(0).sequence(), first.firstSequence());
+        assertEquals(trades.get(1).sequence(), first.lastSequence());
+        assertEquals(101, summaries.events().get(1).price());
+    }
 }
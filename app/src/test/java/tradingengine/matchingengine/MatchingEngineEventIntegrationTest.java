@@ -7,9 +7,11 @@ import tradingengine.domain.OrderSide;
 import tradingengine.domain.Trade;
 import tradingengine.events.EngineEvent;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.LevelUpdateEvent;
 import tradingengine.events.OrderBookEvent;
 import tradingengine.events.OrderBookEventType;
 import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
 import tradingengine.events.listeners.CapturingEventListener;
 import tradingengine.persistence.FileTradeStore;
 
@@ -17,7 +19,9 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.List;
 
@@ -164,4 +168,91 @@ class MatchingEngineEventIntegrationTest {
 
         assertTrue(tradeListener.events().isEmpty());
     }
+
+    // Ensures aggregated events turn a multi-level sweep into one trade summary per level and
+    // one final quantity per touched level, with no per-fill or per-order events.
+    @Test
+    void aggregatedEventsSummarizeSweepPerLevel() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<EngineEvent> allListener = new CapturingEventListener<>();
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, dispatcher, tradeStore());
+        engine.setAggregatedEvents(true);
+        for (int i = 0; i < 3; i++) {
+            engine.submit(order(OrderSide.SELL, 100, 1));
+        }
+        engine.submit(order(OrderSide.SELL, 101, 2));
+        engine.submit(order(OrderSide.SELL, 101, 2));
+        dispatcher.register(EngineEvent.class, allListener);
+
+        List<Trade> trades = engine.submit(order(OrderSide.BUY, 101, 8));
+
+        assertEquals(5, trades.size());
+        assertEquals(List.of(
+                new TradeSummaryEvent(OrderSide.BUY, 100, 3, 3, trades.get(0).sequence(), trades.get(2).sequence(), FIXED_INSTANT),
+                new TradeSummaryEvent(OrderSide.BUY, 101, 4, 2, trades.get(3).sequence(), trades.get(4).sequence(), FIXED_INSTANT),
+                new LevelUpdateEvent(OrderSide.SELL, 100, 0, FIXED_INSTANT),
+                new LevelUpdateEvent(OrderSide.SELL, 101, 0, FIXED_INSTANT),
+                new LevelUpdateEvent(OrderSide.BUY, 101, 1, FIXED_INSTANT)
+        ), allListener.events());
+    }
+
+    // Ensures every event of one command carries the same engine time, read from the clock
+    // once per command, even when the clock moves on in between.
+    @Test
+    void eventsOfOneCommandShareOneTimestamp() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        Clock ticking = Clock.tick(Clock.systemUTC(), Duration.ofNanos(1));
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), ticking, dispatcher, tradeStore());
+        for (int i = 0; i < 3; i++) {
+            engine.submit(order(OrderSide.SELL, 100 + i, 1));
+        }
+        dispatcher.register(OrderBookEvent.class, bookListener);
+
+        engine.submit(order(OrderSide.BUY, 102, 3));
+
+        List<OrderBookEvent> removes = bookListener.events();
+        assertEquals(3, removes.size());
+        assertSame(removes.get(0).timestamp(), removes.get(2).timestamp());
+    }
+
+    // Ensures an amend or mass quote timestamped "now" reads the clock once: the re-queued or
+    // new order carries the same time as the command's events.
+    @Test
+    void commandsTimestampedNowReadTheClockOnce() {
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        dispatcher.register(OrderBookEvent.class, bookListener);
+        // Moves on by a millisecond on every read.
+        Clock stepping = new Clock() {
+            private Instant now = FIXED_INSTANT;
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                now = now.plusMillis(1);
+                return now;
+            }
+        };
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), stepping, dispatcher, tradeStore());
+        Order ask = order(OrderSide.SELL, 101, 1);
+        engine.submit(ask);
+
+        engine.amend(ask.getId(), 102, 1);
+        OrderBookEvent amended = bookListener.events().get(bookListener.events().size() - 1);
+        assertEquals(amended.timestamp(), engine.getBook().findOrder(ask.getId()).getTimestamp());
+
+        MassQuote.Result quoted = engine.massQuote(new MassQuote("mm", List.of(new MassQuote.Level(99, 1)), List.of()));
+        OrderBookEvent added = bookListener.events().get(bookListener.events().size() - 1);
+        assertEquals(added.timestamp(), engine.getBook().findOrder(quoted.acks().get(0).orderId()).getTimestamp());
+    }
 }
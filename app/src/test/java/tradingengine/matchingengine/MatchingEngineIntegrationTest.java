@@ -1,10 +1,13 @@
 package tradingengine.matchingengine;
 
 import org.junit.jupiter.api.Test;
+import tradingengine.book.DepthSnapshot;
 import tradingengine.book.OrderBook;
+import tradingengine.book.TopOfBook;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
 import tradingengine.domain.OrderStatus;
+import tradingengine.domain.TimeInForce;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
 import tradingengine.persistence.FileTradeStore;
@@ -38,6 +41,32 @@ class MatchingEngineIntegrationTest {
         return new Order(side, price, quantity, Instant.now(FIXED_CLOCK));
     }
 
+    // Rationale: A batch must behave exactly like the same commands submitted one by one,
+    // including a cancel that targets an order submitted earlier in the same batch.
+    @Test
+    void submitBatchAppliesCommandsInOrder() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order bid = order(OrderSide.BUY, 100, 5);
+        Order cancelledBid = order(OrderSide.BUY, 99, 5);
+        Order sell = order(OrderSide.SELL, 100, 3);
+
+        List<CommandResult> results = engine.submitBatch(List.of(
+                new EngineCommand.Submit(bid),
+                new EngineCommand.Submit(cancelledBid),
+                new EngineCommand.Cancel(cancelledBid.getId()),
+                new EngineCommand.Submit(sell),
+                new EngineCommand.Cancel("missing")
+        ));
+
+        assertEquals(5, results.size());
+        assertEquals(List.of(0, 0, 0, 1, 0), results.stream().map(r -> r.trades().size()).toList());
+        assertEquals(List.of(true, true, true, true, false), results.stream().map(CommandResult::accepted).toList());
+        assertEquals(3, results.get(3).trades().get(0).quantity());
+        assertEquals(2, bid.getRemainingQty());
+        assertEquals(OrderStatus.CANCELLED, cancelledBid.getStatus());
+        assertEquals(1, engine.tradeHistory().size());
+    }
+
     // Ensures exact quantity matches create a single trade and fill both orders.
     @Test
     void exactMatchProducesSingleTrade() {
@@ -128,20 +157,23 @@ class MatchingEngineIntegrationTest {
         assertEquals(restingSell.getId(), trades.get(0).sellOrderId());
     }
 
-    // Ensures persisted trade timestamps stay anchored to the aggressive order.
+    // Ensures persisted trade timestamps stay anchored to the aggressive order, which the engine
+    // stamps with its own time when it applies it (not the time the order was built).
     @Test
     void tradeTimestampUsesIncomingOrderTimestamp() {
-        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Instant engineTime = Instant.parse("2026-01-01T00:05:00Z");
+        Clock engineClock = Clock.fixed(engineTime, ZoneOffset.UTC);
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), engineClock, new EventDispatcher(), tradeStore());
 
         Order restingSell = new Order(OrderSide.SELL, 100, 5, Instant.parse("2026-01-01T00:00:00Z"));
         engine.submit(restingSell);
 
-        Instant incomingTimestamp = Instant.parse("2026-01-01T00:05:00Z");
-        Order incomingBuy = new Order(OrderSide.BUY, 100, 5, incomingTimestamp);
+        Order incomingBuy = new Order(OrderSide.BUY, 100, 5, Instant.parse("2026-01-01T00:01:00Z"));
         List<Trade> trades = engine.submit(incomingBuy);
 
         assertEquals(1, trades.size());
-        assertEquals(incomingTimestamp, trades.get(0).timestamp());
+        assertEquals(engineTime, incomingBuy.getTimestamp());
+        assertEquals(engineTime, trades.get(0).timestamp());
     }
 
     // Ensures non-crossing prices do not trade.
@@ -267,6 +299,233 @@ class MatchingEngineIntegrationTest {
         assertFalse(s2.isActive());
     }
 
+    // Ensures fills can be looked up per order id from both the buy and the sell side.
+    @Test
+    void tradesForOrderReturnsOnlyThatOrdersFills() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+
+        Order s1 = order(OrderSide.SELL, 100, 5);
+        Order s2 = order(OrderSide.SELL, 101, 7);
+        engine.submit(s1);
+        engine.submit(s2);
+
+        Order b1 = order(OrderSide.BUY, 100, 3);
+        Order b2 = order(OrderSide.BUY, 105, 9);
+        engine.submit(b1);
+        engine.submit(b2);
+
+        List<Trade> b2Trades = engine.tradesForOrder(b2.getId());
+        assertEquals(2, b2Trades.size());
+        assertEquals(100, b2Trades.get(0).price());
+        assertEquals(2, b2Trades.get(0).quantity());
+        assertEquals(101, b2Trades.get(1).price());
+        assertEquals(7, b2Trades.get(1).quantity());
+
+        List<Trade> s1Trades = engine.tradesForOrder(s1.getId());
+        assertEquals(2, s1Trades.size());
+        assertEquals(b1.getId(), s1Trades.get(0).buyOrderId());
+        assertEquals(b2.getId(), s1Trades.get(1).buyOrderId());
+
+        assertTrue(engine.tradesForOrder("unknown").isEmpty());
+    }
+
+    // Ensures an order that fills many times keeps every fill in execution order as its index grows.
+    @Test
+    void tradesForOrderKeepsEveryFillOfAManyTimesFilledOrder() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order seller = order(OrderSide.SELL, 100, 50);
+        engine.submit(seller);
+
+        for (int i = 0; i < 50; i++) {
+            engine.submit(order(OrderSide.BUY, 100, 1));
+        }
+
+        List<Trade> fills = engine.tradesForOrder(seller.getId());
+        assertEquals(50, fills.size());
+        for (int i = 0; i < fills.size(); i++) {
+            assertEquals(i + 1, fills.get(i).sequence());
+        }
+    }
+
+    // Ensures the published top of book tracks each command and only advances on a change.
+    @Test
+    void topOfBookIsPublishedAfterEachChange() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        assertSame(TopOfBook.EMPTY, engine.topOfBook());
+
+        engine.submit(order(OrderSide.BUY, 100, 5));
+        engine.submit(order(OrderSide.BUY, 100, 2));
+        Order ask = order(OrderSide.SELL, 103, 4);
+        engine.submit(ask);
+        engine.submit(order(OrderSide.SELL, 110, 1)); // behind the best ask: no change
+
+        TopOfBook top = engine.topOfBook();
+        assertEquals(new TopOfBook(3, 100, 7, 2, 103, 4, 1), top);
+
+        engine.submit(order(OrderSide.SELL, 100, 6));
+        assertEquals(new TopOfBook(4, 100, 1, 1, 103, 4, 1), engine.topOfBook());
+
+        assertTrue(engine.cancel(ask.getId()));
+        assertEquals(new TopOfBook(5, 100, 1, 1, 110, 1, 1), engine.topOfBook());
+    }
+
+    // Rationale: Depth snapshots are rebuilt at most once per book version, and a rebuild reuses
+    // the level objects of every level the change did not touch.
+    @Test
+    void depthSnapshotIsVersionedAndShared() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        engine.submit(order(OrderSide.BUY, 100, 5));
+        engine.submit(order(OrderSide.BUY, 99, 5));
+        engine.submit(order(OrderSide.SELL, 105, 5));
+
+        DepthSnapshot first = engine.depthSnapshot();
+        assertEquals(engine.bookVersion(), first.version());
+        assertSame(first, engine.depthSnapshot());
+        assertSame(first, engine.latestDepthSnapshot());
+
+        engine.submit(order(OrderSide.SELL, 100, 2)); // touches only the best bid level
+        DepthSnapshot second = engine.depthSnapshot();
+
+        assertTrue(second.version() > first.version());
+        assertEquals(3, second.bids().get(0).qty());
+        assertSame(first.bids().get(1), second.bids().get(1));
+        assertSame(first.asks(), second.asks());
+        assertEquals(5, first.bids().get(0).qty()); // the older snapshot is unaffected
+    }
+
+    // Rationale: Reducing quantity at the same price keeps time priority, so the amended order
+    // still trades ahead of later orders at its level.
+    @Test
+    void amendDownKeepsTimePriority() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order first = order(OrderSide.SELL, 100, 10);
+        Order second = order(OrderSide.SELL, 100, 10);
+        engine.submit(first);
+        engine.submit(second);
+
+        CommandResult result = engine.amend(first.getId(), 100, 4);
+        List<Trade> trades = engine.submit(order(OrderSide.BUY, 100, 4));
+
+        assertTrue(result.accepted());
+        assertEquals(1, trades.size());
+        assertEquals(first.getId(), trades.get(0).sellOrderId());
+        assertEquals(10, engine.getBook().sellSide().bestLevelQty());
+    }
+
+    // Rationale: A price change or quantity increase loses priority: the order is re-queued at
+    // the back under the same id, and crosses immediately if its new price is marketable.
+    @Test
+    void amendPriceOrQuantityUpRequeues() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order first = order(OrderSide.SELL, 100, 5);
+        Order second = order(OrderSide.SELL, 100, 5);
+        Order bid = order(OrderSide.BUY, 98, 3);
+        engine.submit(first);
+        engine.submit(second);
+        engine.submit(bid);
+
+        assertTrue(engine.amend(first.getId(), 100, 6).accepted());
+        List<Trade> trades = engine.submit(order(OrderSide.BUY, 100, 5));
+        assertEquals(second.getId(), trades.get(0).sellOrderId());
+
+        CommandResult crossed = engine.amend(bid.getId(), 100, 3);
+        assertEquals(1, crossed.trades().size());
+        assertEquals(bid.getId(), crossed.trades().get(0).buyOrderId());
+        assertEquals(first.getId(), crossed.trades().get(0).sellOrderId());
+        assertEquals(3, engine.getBook().findOrder(first.getId()).getRemainingQty());
+        assertNull(engine.getBook().findOrder(bid.getId()));
+    }
+
+    // Ensures a re-queued good-till-time order keeps its expiry and still expires on time.
+    @Test
+    void amendRequeuedGttOrderKeepsItsExpiry() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Instant expireAt = FIXED_INSTANT.plusSeconds(5);
+        Order gtt = order(OrderSide.SELL, 100, 2).assignGoodTillTime(expireAt);
+        engine.submit(gtt);
+
+        assertTrue(engine.amend(gtt.getId(), 101, 4).accepted());
+
+        Order amended = engine.getBook().findOrder(gtt.getId());
+        assertEquals(101, amended.getPrice());
+        assertEquals(TimeInForce.GTT, amended.getTimeInForce());
+        assertEquals(expireAt, amended.getExpireAt());
+        assertEquals(1, engine.expireOrders(expireAt));
+        assertTrue(engine.getBook().sellSide().isEmpty());
+    }
+
+    // Ensures amending an unknown order is rejected and an invalid quantity throws.
+    @Test
+    void amendRejectsMissingOrInvalid() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Order ask = order(OrderSide.SELL, 100, 5);
+        engine.submit(ask);
+
+        assertFalse(engine.amend("missing", 100, 1).accepted());
+        assertThrows(IllegalArgumentException.class, () -> engine.amend(ask.getId(), 100, 0));
+        assertEquals(5, engine.getBook().findOrder(ask.getId()).getRemainingQty());
+    }
+
+    // Rationale: A re-quote only touches levels whose quantity changed, so an unchanged or
+    // reduced level keeps its queue position ahead of other clients.
+    @Test
+    void massQuoteTouchesOnlyChangedLevels() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        MassQuote.Result first = engine.massQuote(new MassQuote("mm",
+                List.of(new MassQuote.Level(99, 5), new MassQuote.Level(98, 5)),
+                List.of(new MassQuote.Level(101, 5), new MassQuote.Level(102, 5))));
+        assertTrue(first.acks().stream().allMatch(ack -> ack.action() == MassQuote.Action.NEW));
+        engine.submit(order(OrderSide.BUY, 99, 5));
+        engine.submit(order(OrderSide.BUY, 98, 5));
+
+        MassQuote.Result second = engine.massQuote(new MassQuote("mm",
+                List.of(new MassQuote.Level(99, 5), new MassQuote.Level(98, 3), new MassQuote.Level(97, 5)),
+                List.of(new MassQuote.Level(101, 7))));
+
+        assertEquals(List.of(MassQuote.Action.CANCELLED, MassQuote.Action.UNCHANGED, MassQuote.Action.REDUCED,
+                        MassQuote.Action.NEW, MassQuote.Action.REPLACED),
+                second.acks().stream().map(MassQuote.Ack::action).toList());
+        assertEquals(first.acks().get(0).orderId(), second.acks().get(1).orderId());
+        assertEquals(first.acks().get(2).orderId(), second.acks().get(4).orderId());
+
+        List<Trade> atBest = engine.submit(order(OrderSide.SELL, 99, 5));
+        assertEquals(first.acks().get(0).orderId(), atBest.get(0).buyOrderId());
+        List<Trade> sweep = engine.submit(order(OrderSide.SELL, 98, 8)); // other client's 99, then mm's 98
+        assertEquals(first.acks().get(1).orderId(), sweep.get(1).buyOrderId());
+        assertEquals(3, sweep.get(1).quantity());
+    }
+
+    // Ensures a quote that grows the client's good-till-time order re-queues it with the same
+    // expiry, so it still expires instead of resting on as good-till-cancel.
+    @Test
+    void massQuoteReplacedOrderKeepsItsExpiry() {
+        MatchingEngine engine = new MatchingEngine(new OrderBook(), FIXED_CLOCK, new EventDispatcher(), tradeStore());
+        Instant expireAt = FIXED_INSTANT.plusSeconds(5);
+        Order gtt = order(OrderSide.BUY, 99, 2).assignOwner("mm").assignGoodTillTime(expireAt);
+        engine.submit(gtt);
+
+        MassQuote.Result result = engine.massQuote(new MassQuote("mm", List.of(new MassQuote.Level(99, 5)), List.of()));
+
+        assertEquals(MassQuote.Action.REPLACED, result.acks().get(0).action());
+        Order replacement = engine.getBook().findOrder(gtt.getId());
+        assertEquals(5, replacement.getRemainingQty());
+        assertEquals(TimeInForce.GTT, replacement.getTimeInForce());
+        assertEquals(expireAt, replacement.getExpireAt());
+        assertEquals("mm", replacement.getOwner());
+
+        assertEquals(1, engine.expireOrders(expireAt));
+        assertNull(engine.getBook().findOrder(gtt.getId()));
+    }
+
+    // Ensures a quote whose bids cross its own asks is rejected before anything changes.
+    @Test
+    void massQuoteRejectsCrossedLadder() {
+        assertThrows(IllegalArgumentException.class, () -> new MassQuote("mm",
+                List.of(new MassQuote.Level(101, 1)), List.of(new MassQuote.Level(101, 1))));
+        assertThrows(IllegalArgumentException.class, () -> new MassQuote("mm",
+                List.of(new MassQuote.Level(99, 1), new MassQuote.Level(99, 2)), List.of()));
+    }
+
     private static List<String> tradeSignatures(List<Trade> trades) {
         List<String> signatures = new ArrayList<>();
         for (Trade trade : trades) {
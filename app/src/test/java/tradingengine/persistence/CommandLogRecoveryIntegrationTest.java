@@ -5,8 +5,13 @@ import org.junit.jupiter.api.io.TempDir;
 import tradingengine.book.OrderBook;
 import tradingengine.domain.Order;
 import tradingengine.domain.OrderSide;
+import tradingengine.domain.TimeInForce;
 import tradingengine.domain.Trade;
 import tradingengine.events.EventDispatcher;
+import tradingengine.events.OrderBookEvent;
+import tradingengine.events.listeners.CapturingEventListener;
+import tradingengine.matchingengine.EngineCommand;
+import tradingengine.matchingengine.MassQuote;
 import tradingengine.matchingengine.MatchingEngine;
 
 import java.io.IOException;
@@ -15,7 +20,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,6 +65,27 @@ class CommandLogRecoveryIntegrationTest {
         return order(side, price, quantity, FIXED_CLOCK);
     }
 
+    // Engine clock that moves on a second at every read, starting at FIXED_CLOCK's time.
+    private static final class SteppingClock extends Clock {
+        private Instant now = FIXED_CLOCK.instant();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            now = now.plusSeconds(1);
+            return now;
+        }
+    }
+
     private static Order order(OrderSide side, long price, long quantity, Clock clock) {
         return new Order(side, price, quantity, Instant.now(clock));
     }
@@ -66,17 +94,7 @@ class CommandLogRecoveryIntegrationTest {
         engine.setReplayMode(true);
         try {
             for (CommandLog.Record record : log.readAll()) {
-                if (record.type == CommandLog.Type.ORDER) {
-                    engine.submit(new Order(
-                            record.orderId,
-                            OrderSide.valueOf(record.side),
-                            record.price,
-                            record.quantity,
-                            record.timestamp
-                    ));
-                } else if (record.type == CommandLog.Type.CANCEL) {
-                    engine.cancel(record.cancelOrderId);
-                }
+                engine.replay(record);
             }
         } finally {
             engine.setReplayMode(false);
@@ -250,6 +268,79 @@ class CommandLogRecoveryIntegrationTest {
         assertThrows(RuntimeException.class, log::verifyChainOrThrow);
     }
 
+    // Rationale: The order-id trade index lives in memory, so replay must rebuild it from the WAL.
+    @Test
+    void replayRebuildsTradeLookupByOrderId() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        Order resting = order(OrderSide.BUY, 100, 10);
+        liveEngine.submit(resting);
+        liveEngine.submit(order(OrderSide.SELL, 100, 3));
+        liveEngine.submit(order(OrderSide.SELL, 100, 7));
+        List<Trade> expected = liveEngine.tradesForOrder(resting.getId());
+        assertEquals(2, expected.size());
+
+        new FileTradeStore(trades).clear();
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(expected, recoveredEngine.tradesForOrder(resting.getId()));
+    }
+
+    // Rationale: Trade sequences come from the WAL, so replay must reproduce them and must not
+    // duplicate trades when trades.csv was not cleared first.
+    @Test
+    void replayOverExistingTradesReusesSequences() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.BUY, 100, 10));
+        liveEngine.submit(order(OrderSide.SELL, 100, 3));
+        liveEngine.submit(order(OrderSide.SELL, 100, 7));
+        List<Trade> expected = liveEngine.tradeHistory();
+        assertEquals(List.of(1L, 2L), expected.stream().map(Trade::sequence).toList());
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(expected, recoveredEngine.tradeHistory());
+        assertEquals(2L, recoveredEngine.lastTradeSequence());
+        recoveredEngine.submit(order(OrderSide.BUY, 100, 1));
+        recoveredEngine.submit(order(OrderSide.SELL, 100, 1));
+        assertEquals(3L, recoveredEngine.getTradeStore().lastSequence());
+    }
+
+    // Rationale: A batch is one WAL write, but its records must chain and replay like single appends.
+    @Test
+    void batchIsJournaledAsChainedRecordsAndReplays() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.SELL, 101, 4));
+        Order bid = order(OrderSide.BUY, 100, 2);
+        liveEngine.submitBatch(List.of(
+                new EngineCommand.Submit(bid),
+                new EngineCommand.Submit(order(OrderSide.BUY, 101, 3)),
+                new EngineCommand.Cancel(bid.getId())
+        ));
+        List<Trade> expectedTrades = liveEngine.tradeHistory();
+
+        CommandLog log = new CommandLog(commands);
+        log.verifyChainOrThrow();
+        assertEquals(4, log.readAll().size());
+
+        new FileTradeStore(trades).clear();
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(log, recoveredEngine);
+
+        assertEquals(expectedTrades, recoveredEngine.tradeHistory());
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+    }
+
     // Rationale: After restart, newly appended records must continue the same hash chain from the previous tail.
     @Test
     void hashChainContinuesAcrossRestarts() {
@@ -304,4 +395,277 @@ class CommandLogRecoveryIntegrationTest {
         assertEquals(2, records.size());
         assertTrue(records.stream().noneMatch(record -> record.type == CommandLog.Type.CANCEL));
     }
+
+    // Rationale: Amends are journaled as their own record and replay to the same book, including
+    // the priority an order kept or lost.
+    @Test
+    void amendIsJournaledAndReplayed() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+
+        Order first = order(OrderSide.SELL, 100, 5);
+        Order second = order(OrderSide.SELL, 100, 5);
+        liveEngine.submit(first);
+        liveEngine.submit(second);
+        liveEngine.amend(first.getId(), 100, 3);
+        liveEngine.amend(second.getId(), 101, 5);
+        liveEngine.submit(order(OrderSide.BUY, 101, 4));
+
+        List<CommandLog.Record> records = new CommandLog(commands).readAll();
+        assertEquals(CommandLog.Type.AMEND, records.get(2).type);
+        assertEquals(first.getId(), records.get(2).orderId);
+        assertEquals(3, records.get(2).quantity);
+
+        FileTradeStore recoveredStore = new FileTradeStore(trades);
+        recoveredStore.clear();
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+    }
+
+    // Ensures an amend to the same price and quantity is accepted without a journal record or
+    // a book event, since nothing changed.
+    @Test
+    void noOpAmendIsNeitherJournaledNorPublished() {
+        Path commands = commandsPath();
+        EventDispatcher dispatcher = new EventDispatcher();
+        CapturingEventListener<OrderBookEvent> bookListener = new CapturingEventListener<>();
+        dispatcher.register(OrderBookEvent.class, bookListener);
+        MatchingEngine engine = new MatchingEngine(
+                new OrderBook(), FIXED_CLOCK, dispatcher, new FileTradeStore(tradesPath()), new CommandLog(commands));
+        Order ask = order(OrderSide.SELL, 100, 5);
+        engine.submit(ask);
+        int events = bookListener.events().size();
+
+        assertTrue(engine.amend(ask.getId(), 100, 5).accepted());
+        assertTrue(engine.submitBatch(List.of(new EngineCommand.Amend(ask.getId(), 100, 5))).get(0).accepted());
+
+        assertEquals(events, bookListener.events().size());
+        assertEquals(2, new CommandLog(commands).readAll().size()); // the order, and the batch's amend
+    }
+
+    // Rationale: A mass cancel is one journal record however many orders it removes, and
+    // replaying it clears the same levels.
+    @Test
+    void massCancelIsOneRecordAndReplays() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        for (int i = 0; i < 5; i++) {
+            liveEngine.submit(order(OrderSide.BUY, 95 + i, 1));
+        }
+        liveEngine.submit(order(OrderSide.SELL, 110, 1));
+
+        assertEquals(3, liveEngine.massCancel(new EngineCommand.MassCancel(OrderSide.BUY, 97, 105)));
+
+        List<CommandLog.Record> records = new CommandLog(commands).readAll();
+        assertEquals(7, records.size());
+        assertEquals(CommandLog.Type.MASS_CANCEL, records.get(6).type);
+        assertEquals(97, records.get(6).minPrice);
+        new CommandLog(commands).verifyChainOrThrow();
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(96, recoveredEngine.getBook().bestBid());
+    }
+
+    // Rationale: A mass quote is one journal record; replaying it mints the same order ids and
+    // rebuilds the same ladder, including owners.
+    @Test
+    void massQuoteIsOneRecordAndReplays() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.SELL, 103, 2));
+        liveEngine.massQuote(new MassQuote("mm",
+                List.of(new MassQuote.Level(99, 5), new MassQuote.Level(98, 5)),
+                List.of(new MassQuote.Level(101, 5))));
+        liveEngine.massQuote(new MassQuote("mm",
+                List.of(new MassQuote.Level(99, 4)),
+                List.of(new MassQuote.Level(101, 5), new MassQuote.Level(102, 1))));
+
+        List<CommandLog.Record> records = new CommandLog(commands).readAll();
+        assertEquals(3, records.size());
+        assertEquals(CommandLog.Type.MASS_QUOTE, records.get(2).type);
+        new CommandLog(commands).verifyChainOrThrow();
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(
+                liveEngine.getBook().ordersOf("mm").stream().map(Order::getId).toList(),
+                recoveredEngine.getBook().ordersOf("mm").stream().map(Order::getId).toList());
+    }
+
+    // Ensures the time in force is journaled, so a replayed IOC remainder does not rest.
+    @Test
+    void timeInForceIsJournaledAndReplayed() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.SELL, 100, 2));
+        liveEngine.submit(order(OrderSide.BUY, 100, 5).assignTimeInForce(TimeInForce.IOC));
+
+        assertEquals("IOC", new CommandLog(commands).readAll().get(1).timeInForce);
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertTrue(recoveredEngine.getBook().buySide().isEmpty());
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+    }
+
+    // Ensures GTT expiries are journaled where they happened: replay expires the same order at
+    // the same point, whatever the recovering engine's clock says.
+    @Test
+    void gttExpiryIsJournaledAndReplayed() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        Instant expireAt = Instant.now(FIXED_CLOCK).plusSeconds(1);
+        liveEngine.submit(order(OrderSide.SELL, 100, 3).assignGoodTillTime(expireAt));
+        liveEngine.submit(order(OrderSide.BUY, 100, 1));
+        assertEquals(1, liveEngine.expireOrders(expireAt));
+        liveEngine.submit(order(OrderSide.SELL, 100, 4));
+
+        List<CommandLog.Record> records = new CommandLog(commands).readAll();
+        assertEquals(expireAt, records.get(0).expireAt);
+        assertEquals(CommandLog.Type.EXPIRE, records.get(2).type);
+        new CommandLog(commands).verifyChainOrThrow();
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades, RECOVERY_CLOCK);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(4, recoveredEngine.getBook().sellSide().bestLevelQty());
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+    }
+
+    // Ensures an amend that re-queues a GTT order replays to the same book and the re-queued
+    // order expires at its original expiry after recovery.
+    @Test
+    void amendedGttOrderReplaysAndExpires() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        Instant expireAt = Instant.now(FIXED_CLOCK).plusSeconds(1);
+        Order gtt = order(OrderSide.BUY, 99, 2).assignGoodTillTime(expireAt);
+        liveEngine.submit(gtt);
+        liveEngine.submit(order(OrderSide.SELL, 101, 1));
+        liveEngine.amend(gtt.getId(), 100, 3);
+
+        assertEquals(CommandLog.Type.AMEND, new CommandLog(commands).readAll().get(2).type);
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades, RECOVERY_CLOCK);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(expireAt, recoveredEngine.getBook().findOrder(gtt.getId()).getExpireAt());
+        assertEquals(1, recoveredEngine.expireOrders(expireAt));
+        assertEquals(101, recoveredEngine.getBook().sellSide().bestPrice());
+        assertTrue(recoveredEngine.getBook().buySide().isEmpty());
+    }
+
+    // Ensures a stop order is journaled with its stop price and replay activates it at the
+    // same trade, so no separate activation record is needed.
+    @Test
+    void stopOrderIsJournaledAndActivatesOnReplay() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.SELL, 100, 3));
+        liveEngine.submit(order(OrderSide.SELL, 99, 2).assignStopPrice(100));
+        liveEngine.submit(order(OrderSide.BUY, 100, 1));
+
+        assertEquals(100, new CommandLog(commands).readAll().get(1).stopPrice);
+        assertEquals(99, liveEngine.getBook().sellSide().bestPrice());
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades, RECOVERY_CLOCK);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.getBook().dump(), recoveredEngine.getBook().dump());
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+    }
+
+    // Ensures an activated stop's trades carry the time of the order that triggered it, not
+    // the stop's older submission time, so trades.csv stays in time order, and that replay
+    // stamps them the same way.
+    @Test
+    void activatedStopTradesCarryTriggerTimeOnReplay() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades, new SteppingClock());
+        liveEngine.submit(order(OrderSide.SELL, 100, 1));
+        liveEngine.submit(order(OrderSide.BUY, 98, 5));
+        Order stop = order(OrderSide.SELL, 98, 2).assignStopPrice(100);
+        liveEngine.submit(stop);
+        Order trigger = order(OrderSide.BUY, 100, 1);
+        List<Trade> live = liveEngine.submit(trigger);
+
+        assertTrue(stop.getTimestamp().isBefore(trigger.getTimestamp()));
+        assertEquals(2, live.size());
+        assertEquals(List.of(trigger.getTimestamp(), trigger.getTimestamp()),
+                live.stream().map(Trade::timestamp).toList());
+
+        new FileTradeStore(trades).clear();
+        MatchingEngine recoveredEngine = newEngine(commands, trades, RECOVERY_CLOCK);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+        assertEquals(trigger.getTimestamp(), recoveredEngine.tradeHistory().get(1).timestamp());
+    }
+
+    // Rationale: Orders built by concurrent request threads can arrive out of time order; the
+    // engine stamps each with its own time as it applies it, so ORDER records and trades stay in
+    // time order and replay never moves engine time backwards.
+    @Test
+    void ordersAreStampedWithEngineTimeInApplyOrder() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades, new SteppingClock());
+        Clock late = Clock.offset(FIXED_CLOCK, Duration.ofHours(1));
+        liveEngine.submit(order(OrderSide.SELL, 100, 1, late));
+        liveEngine.submit(order(OrderSide.BUY, 100, 1));
+        liveEngine.submit(order(OrderSide.SELL, 100, 1, late));
+        liveEngine.submitBatch(List.of(new EngineCommand.Submit(order(OrderSide.BUY, 100, 1))));
+
+        List<Instant> journaled = new CommandLog(commands).readAll().stream().map(record -> record.timestamp).toList();
+        List<Instant> sorted = new ArrayList<>(journaled);
+        sorted.sort(null);
+        assertEquals(sorted, journaled);
+        List<Trade> history = liveEngine.tradeHistory();
+        assertEquals(2, history.size());
+        assertTrue(history.get(0).timestamp().isBefore(history.get(1).timestamp()));
+
+        new FileTradeStore(trades).clear();
+        MatchingEngine recoveredEngine = newEngine(commands, trades, RECOVERY_CLOCK);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertEquals(history, recoveredEngine.tradeHistory());
+    }
+
+    // Ensures the order type is journaled, so a replayed market remainder is cancelled rather
+    // than resting at its protection price.
+    @Test
+    void marketOrderIsJournaledAndReplayed() {
+        Path commands = commandsPath();
+        Path trades = tradesPath();
+        MatchingEngine liveEngine = newEngine(commands, trades);
+        liveEngine.submit(order(OrderSide.BUY, 99, 2));
+        liveEngine.submit(order(OrderSide.SELL, 90, 5).assignMarket());
+
+        assertEquals("MARKET", new CommandLog(commands).readAll().get(1).orderType);
+
+        MatchingEngine recoveredEngine = newEngine(commands, trades);
+        replay(new CommandLog(commands), recoveredEngine);
+
+        assertTrue(recoveredEngine.getBook().sellSide().isEmpty());
+        assertEquals(liveEngine.tradeHistory(), recoveredEngine.tradeHistory());
+    }
 }
@@ -0,0 +1,137 @@
+package tradingengine.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tradingengine.domain.Trade;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for positional and cursor-based reads of trades.csv.
+class FileTradeStoreTest {
+
+    private static final Instant FIXED_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private static Trade trade(int n) {
+        return new Trade("b" + n, "s" + n, 100 + n, n, FIXED_TIME.plusSeconds(n), n);
+    }
+
+    // Ensures save returns consecutive positions that read back the same trades.
+    @Test
+    void savedPositionsReadBackTheSameTrades() {
+        FileTradeStore store = new FileTradeStore(tempDir.resolve("trades.csv"));
+
+        assertEquals(0, store.save(trade(1)));
+        assertEquals(1, store.save(trade(2)));
+        assertEquals(2, store.save(trade(3)));
+
+        assertEquals(List.of(trade(3), trade(1)), store.findByPositions(List.of(2, 0)));
+        assertEquals(3, store.count());
+    }
+
+    // Ensures a fresh store indexes an existing file, skipping blank lines.
+    @Test
+    void existingFileIsIndexedOnFirstUse() throws IOException {
+        Path file = tempDir.resolve("trades.csv");
+        FileTradeStore writer = new FileTradeStore(file);
+        writer.save(trade(1));
+        writer.save(trade(2));
+        Files.writeString(file, "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        FileTradeStore reader = new FileTradeStore(file);
+
+        assertEquals(2, reader.count());
+        assertEquals(List.of(trade(2)), reader.findByPositions(List.of(1)));
+        assertEquals(2, reader.save(trade(3)));
+        assertEquals(List.of(trade(3)), reader.findByPositions(List.of(2)));
+    }
+
+    // Ensures cursor reads resume exactly after the last sequence seen.
+    @Test
+    void forEachAfterResumesFromCursor() throws IOException {
+        FileTradeStore store = new FileTradeStore(tempDir.resolve("trades.csv"));
+        for (int i = 1; i <= 5; i++) {
+            store.save(trade(i));
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        List<Trade> trades = new ArrayList<>();
+        int visited = store.forEachAfter(2, 2, (seq, trade) -> {
+            sequences.add(seq);
+            trades.add(trade);
+        });
+
+        assertEquals(2, visited);
+        assertEquals(List.of(3L, 4L), sequences);
+        assertEquals(List.of(trade(3), trade(4)), trades);
+        assertEquals(1, store.forEachAfter(4, 100, (seq, trade) -> assertEquals(5L, seq)));
+        assertEquals(0, store.forEachAfter(5, 100, (seq, trade) -> fail("no trades after the end")));
+    }
+
+    // Ensures positions reset after clear so replay rebuilds them from zero.
+    @Test
+    void clearResetsPositions() {
+        FileTradeStore store = new FileTradeStore(tempDir.resolve("trades.csv"));
+        store.save(trade(1));
+
+        store.clear();
+
+        assertEquals(0, store.count());
+        assertEquals(0, store.save(trade(2)));
+        assertThrows(IllegalArgumentException.class, () -> store.findByPositions(List.of(1)));
+    }
+
+    // Rationale: replaying the command log over an existing trades.csv must not duplicate trades.
+    @Test
+    void saveIsIdempotentBySequence() {
+        FileTradeStore store = new FileTradeStore(tempDir.resolve("trades.csv"));
+        store.save(trade(1));
+        store.save(trade(2));
+
+        assertEquals(1, store.save(trade(2)));
+        assertEquals(0, store.save(trade(1)));
+
+        assertEquals(2, store.count());
+        assertEquals(2L, store.lastSequence());
+        assertEquals(List.of(trade(1), trade(2)), store.findAll());
+    }
+
+    // Ensures trades without a sequence are numbered after the last persisted one.
+    @Test
+    void unsequencedTradesAreNumberedByTheStore() {
+        FileTradeStore store = new FileTradeStore(tempDir.resolve("trades.csv"));
+        store.save(trade(4));
+
+        store.save(new Trade("b", "s", 100, 1, FIXED_TIME));
+
+        assertEquals(5L, store.lastSequence());
+        assertEquals(5L, store.findAll().get(1).sequence());
+    }
+
+    // Ensures files written before the sequence column existed still index and resume by position.
+    @Test
+    void legacyLinesWithoutSequenceAreNumberedByPosition() throws IOException {
+        Path file = tempDir.resolve("trades.csv");
+        Files.writeString(file,
+                "b1,s1,100,1,2026-01-01T00:00:00Z\nb2,s2,101,2,2026-01-01T00:00:01Z\n",
+                StandardCharsets.UTF_8);
+        FileTradeStore store = new FileTradeStore(file);
+
+        assertEquals(2L, store.lastSequence());
+        List<Long> sequences = new ArrayList<>();
+        store.forEachAfter(1, 10, (seq, trade) -> sequences.add(seq));
+        assertEquals(List.of(2L), sequences);
+        assertEquals(2, store.save(trade(3)));
+    }
+}
@@ -0,0 +1,103 @@
+package tradingengine.persistence;
+
+import org.junit.jupiter.api.Test;
+import tradingengine.domain.Trade;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the byte-level trades.csv codec.
+class TradeCsvCodecTest {
+
+    private static String legacyLine(Trade trade) {
+        return String.join(",",
+                trade.buyOrderId(),
+                trade.sellOrderId(),
+                Long.toString(trade.price()),
+                Long.toString(trade.quantity()),
+                trade.timestamp().toString()
+        ) + "\n";
+    }
+
+    private static Trade roundTrip(TradeCsvCodec codec, Trade trade) {
+        int length = codec.encode(trade);
+        return TradeCsvCodec.decode(codec.buffer(), 0, length - 1);
+    }
+
+    // Rationale: trades.csv written by the codec must stay byte-identical to the previous
+    // String.join/Instant.toString format, including every fraction-of-second grouping.
+    @Test
+    void encodeMatchesLegacyFormat() {
+        TradeCsvCodec codec = new TradeCsvCodec();
+        Random random = new Random(42);
+        long[] nanos = {0, 5_000_000, 123_456_000, 999_999_999, 1};
+        for (int i = 0; i < 2_000; i++) {
+            long second = random.nextLong() % 253_402_300_799L; // within years 0001-9999
+            Instant ts = Instant.ofEpochSecond(Math.abs(second) - (i % 2 == 0 ? 0 : 62_135_596_800L / 2),
+                    nanos[i % nanos.length]);
+            Trade trade = new Trade("buy-" + i, "sell-" + i, 1 + Math.abs(random.nextLong() % 1_000_000_000L),
+                    1 + random.nextInt(1_000_000), ts);
+
+            int length = codec.encode(trade);
+
+            assertEquals(legacyLine(trade), new String(codec.buffer(), 0, length, StandardCharsets.UTF_8));
+            assertEquals(trade, TradeCsvCodec.decode(codec.buffer(), 0, length - 1));
+        }
+    }
+
+    // Ensures edge dates around leap years and the epoch survive a round trip.
+    @Test
+    void roundTripsCalendarEdges() {
+        TradeCsvCodec codec = new TradeCsvCodec();
+        String[] instants = {
+                "1970-01-01T00:00:00Z", "1969-12-31T23:59:59.999999999Z", "2024-02-29T12:00:00.5Z",
+                "2100-03-01T00:00:00Z", "0000-01-01T00:00:00Z", "9999-12-31T23:59:59Z"
+        };
+        for (String text : instants) {
+            Trade trade = new Trade("b", "s", 100, 1, Instant.parse(text));
+            assertEquals(trade, roundTrip(codec, trade));
+        }
+    }
+
+    // Ensures the sequence column is appended for sequenced trades and read back.
+    @Test
+    void sequenceColumnRoundTrips() {
+        TradeCsvCodec codec = new TradeCsvCodec();
+        Trade trade = new Trade("b", "s", 100, 1, Instant.parse("2026-01-01T00:00:00Z"), 42);
+
+        int length = codec.encode(trade);
+
+        assertEquals("42,b,s,100,1,2026-01-01T00:00:00Z\n",
+                new String(codec.buffer(), 0, length, StandardCharsets.UTF_8));
+        assertEquals(trade, TradeCsvCodec.decode(codec.buffer(), 0, length - 1));
+    }
+
+    // Ensures decoding tolerates CRLF endings and parses short fractions like Instant.parse.
+    @Test
+    void decodeAcceptsCrlfAndShortFractions() {
+        byte[] line = "b,s,100,2,2026-01-01T00:00:00.5Z\r".getBytes(StandardCharsets.UTF_8);
+
+        Trade trade = TradeCsvCodec.decode(line, 0, line.length);
+
+        assertEquals(Instant.parse("2026-01-01T00:00:00.5Z"), trade.timestamp());
+        assertEquals(2, trade.quantity());
+    }
+
+    // Ensures malformed lines are rejected instead of producing a partial trade.
+    @Test
+    void decodeRejectsMalformedLines() {
+        byte[] tooFew = "b,s,100,2026-01-01T00:00:00Z".getBytes(StandardCharsets.UTF_8);
+        byte[] tooMany = "1,b,s,100,1,2026-01-01T00:00:00Z,x".getBytes(StandardCharsets.UTF_8);
+        byte[] badNumber = "b,s,1x0,1,2026-01-01T00:00:00Z".getBytes(StandardCharsets.UTF_8);
+        byte[] badDate = "b,s,100,1,2026-02-30T00:00:00Z".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> TradeCsvCodec.decode(tooFew, 0, tooFew.length));
+        assertThrows(IllegalArgumentException.class, () -> TradeCsvCodec.decode(tooMany, 0, tooMany.length));
+        assertThrows(NumberFormatException.class, () -> TradeCsvCodec.decode(badNumber, 0, badNumber.length));
+        assertThrows(DateTimeParseException.class, () -> TradeCsvCodec.decode(badDate, 0, badDate.length));
+    }
+}
@@ -3,12 +3,18 @@ package tradingengine.websocket;
 import org.junit.jupiter.api.Test;
 import tradingengine.domain.OrderSide;
 import tradingengine.domain.Trade;
+import tradingengine.events.LevelUpdateEvent;
+import tradingengine.events.MassCancelEvent;
 import tradingengine.events.OrderBookEvent;
 import tradingengine.events.OrderBookEventType;
 import tradingengine.events.TradeExecutedEvent;
+import tradingengine.events.TradeSummaryEvent;
+import tradingengine.websocket.messages.LevelUpdateMessage;
+import tradingengine.websocket.messages.MassCancelMessage;
 import tradingengine.websocket.messages.MessageType;
 import tradingengine.websocket.messages.OrderBookMessage;
 import tradingengine.websocket.messages.TradeMessage;
+import tradingengine.websocket.messages.TradeSummaryMessage;
 
 import java.time.Instant;
 
@@ -50,4 +56,49 @@ class MarketDataBroadcasterTest {
         assertEquals(101, message.price());
         assertEquals(OrderBookEventType.ADD.name(), message.action());
     }
+
+    // Ensures a mass cancel of both sides maps to one MASS_CANCEL message with side BOTH.
+    @Test
+    void massCancelEventMapsToMassCancelMessage() {
+        MarketDataBroadcaster broadcaster = new MarketDataBroadcaster();
+        MassCancelEvent event = new MassCancelEvent(null, 0, Long.MAX_VALUE, 3, 12,
+                Instant.parse("2026-01-01T00:00:00Z"));
+
+        MassCancelMessage message = broadcaster.toMassCancelMessage(event);
+
+        assertEquals(MessageType.MASS_CANCEL.name(), message.type());
+        assertEquals("BOTH", message.side());
+        assertEquals(3, message.orders());
+        assertEquals(12, message.quantity());
+    }
+
+    // Ensures a trade summary maps to one TRADE_SUMMARY message carrying its sequence range.
+    @Test
+    void tradeSummaryEventMapsToTradeSummaryMessage() {
+        MarketDataBroadcaster broadcaster = new MarketDataBroadcaster();
+        TradeSummaryEvent event = new TradeSummaryEvent(OrderSide.SELL, 99, 7, 3, 4, 6,
+                Instant.parse("2026-01-01T00:00:00Z"));
+
+        TradeSummaryMessage message = broadcaster.toTradeSummaryMessage(event);
+
+        assertEquals(MessageType.TRADE_SUMMARY.name(), message.type());
+        assertEquals("SELL", message.takerSide());
+        assertEquals(7, message.quantity());
+        assertEquals(4, message.firstSequence());
+        assertEquals(6, message.lastSequence());
+    }
+
+    // Ensures a level update maps to a LEVEL_UPDATE message with the level's final quantity.
+    @Test
+    void levelUpdateEventMapsToLevelUpdateMessage() {
+        MarketDataBroadcaster broadcaster = new MarketDataBroadcaster();
+        LevelUpdateEvent event = new LevelUpdateEvent(OrderSide.BUY, 101, 0, Instant.parse("2026-01-01T00:00:00Z"));
+
+        LevelUpdateMessage message = broadcaster.toLevelUpdateMessage(event);
+
+        assertEquals(MessageType.LEVEL_UPDATE.name(), message.type());
+        assertEquals("BUY", message.side());
+        assertEquals(101, message.price());
+        assertEquals(0, message.quantity());
+    }
 }